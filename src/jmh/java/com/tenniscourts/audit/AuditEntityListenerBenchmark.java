@@ -0,0 +1,48 @@
+package com.tenniscourts.audit;
+
+import com.tenniscourts.guests.Guest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-entity cost of the audit listener, next to the host lookup it used to make for every write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuditEntityListenerBenchmark {
+
+    private final CustomAuditEntityListener listener = new CustomAuditEntityListener();
+
+    @Setup
+    public void setUp() {
+        AuditContext.bind("10.0.0.1", 42L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        AuditContext.clear();
+    }
+
+    @Benchmark
+    public Guest prePersist() {
+        Guest guest = new Guest();
+        listener.prePersist(guest);
+        return guest;
+    }
+
+    @Benchmark
+    public String hostAddressLookup() throws UnknownHostException {
+        return InetAddress.getLocalHost().getHostAddress();
+    }
+}
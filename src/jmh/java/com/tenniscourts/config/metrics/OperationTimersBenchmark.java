@@ -0,0 +1,45 @@
+package com.tenniscourts.config.metrics;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead that timing adds to each instrumented service call, recorded into the Prometheus registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OperationTimersBenchmark {
+
+    enum Operation {
+        BOOK
+    }
+
+    private OperationTimers<Operation> operationTimers;
+
+    private final String result = "booked";
+
+    @Setup
+    public void setUp() {
+        operationTimers = new OperationTimers<>(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), "tennis.benchmark", Operation.class);
+    }
+
+    @Benchmark
+    public String baseline() {
+        return result;
+    }
+
+    @Benchmark
+    public String recorded() {
+        return operationTimers.record(Operation.BOOK, () -> result);
+    }
+}
@@ -0,0 +1,147 @@
+package com.tenniscourts.config.persistence;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.ReservationDTO;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.schedules.CreateRecurringSchedulesRequestDTO;
+import com.tenniscourts.schedules.ScheduleDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * The default persistence settings against the production profile, on an H2 file database: the time to start
+ * and stop the application, and the throughput of booking and cancelling through the service. The default
+ * profile recreates the schema on each start and logs every statement and bind parameter; the production
+ * profile migrates once, then only validates the schema, and logs no SQL.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PersistenceProfileBenchmark {
+
+    private static final int SCHEDULE_DAYS = 30;
+
+    @State(Scope.Benchmark)
+    public static class Profile {
+
+        @Param({"default", "production"})
+        public String profile;
+
+        String databaseUrl;
+
+        @Setup
+        public void setUp() {
+            try {
+                databaseUrl = "jdbc:h2:file:" + Files.createTempDirectory("persistence-profile-benchmark").resolve("tennisCourts");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        ConfigurableApplicationContext start() {
+            return SpringApplication.run(TennisCourtApplication.class,
+                    "--spring.profiles.active=" + profile,
+                    "--server.port=0",
+                    "--spring.datasource.url=" + databaseUrl,
+                    "--tennis.outbox.relay-enabled=false");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RunningApplication {
+
+        ConfigurableApplicationContext context;
+
+        ReservationService reservationService;
+
+        List<Long> scheduleIds;
+
+        Long guestId;
+
+        final AtomicInteger next = new AtomicInteger();
+
+        @Setup
+        public void setUp(Profile profile) {
+            context = profile.start();
+            reservationService = context.getBean(ReservationService.class);
+            guestId = context.getBean(GuestRepository.class).save(Guest.builder().name("Benchmark Guest").build()).getId();
+            Long tennisCourtId = context.getBean(TennisCourtRepository.class).save(new TennisCourt("Benchmark Court")).getId();
+
+            LocalDate startDate = LocalDate.now().plusDays(7);
+            ScheduleService scheduleService = context.getBean(ScheduleService.class);
+            scheduleService.addSchedules(CreateRecurringSchedulesRequestDTO.builder()
+                    .tennisCourtIds(Collections.singletonList(tennisCourtId))
+                    .startDate(startDate)
+                    .endDate(startDate.plusDays(SCHEDULE_DAYS - 1))
+                    .openingTime(LocalTime.of(6, 0))
+                    .closingTime(LocalTime.of(22, 0))
+                    .build());
+
+            LocalDateTime from = startDate.atStartOfDay();
+            scheduleIds = scheduleService.findSchedulesByDates(from, from.plusDays(SCHEDULE_DAYS), null, null, 1000)
+                    .getSchedules().stream()
+                    .map(ScheduleDTO::getId)
+                    .collect(Collectors.toList());
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void startAndStop(Profile profile) {
+        profile.start().close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(4)
+    public ReservationDTO bookAndCancel(RunningApplication application) {
+        Long scheduleId = application.scheduleIds.get(Math.floorMod(application.next.getAndIncrement(), application.scheduleIds.size()));
+        try {
+            ReservationDTO reservation = application.reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                    .guestId(application.guestId)
+                    .scheduleId(scheduleId)
+                    .build());
+            return application.reservationService.cancelReservation(reservation.getId());
+        } catch (AlreadyExistsEntityException | BusinessException e) {
+            // another thread holds the slot after wrapping around
+            return null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.tenniscourts.config.persistence;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.audit.AuditContext;
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.ReservationDTO;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.schedules.CreateRecurringSchedulesRequestDTO;
+import com.tenniscourts.schedules.ScheduleDTO;
+import com.tenniscourts.schedules.SchedulePageDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Guests booking and cancelling while others search the schedule, on H2 file databases, with and without a
+ * replica. Each pool is kept small so that, as on a busy primary, the searches have to queue for connections
+ * behind the bookings unless they are sent elsewhere. The replica is a copy of the primary taken after setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReplicaRoutingBenchmark {
+
+    private static final int SCHEDULE_DAYS = 30;
+
+    private static final int POOL_SIZE = 2;
+
+    @Param({"false", "true"})
+    public boolean replica;
+
+    ConfigurableApplicationContext context;
+
+    ReservationService reservationService;
+
+    ScheduleService scheduleService;
+
+    List<Long> scheduleIds;
+
+    Long guestId;
+
+    LocalDateTime from;
+
+    final AtomicInteger next = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("replica-routing-benchmark");
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--spring.profiles.active=production",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("primary"),
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                "--tennis.datasource.replica.enabled=" + replica,
+                "--tennis.datasource.replica.url=jdbc:h2:file:" + directory.resolve("replica"),
+                "--tennis.datasource.replica.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--tennis.datasource.replica.hikari.minimum-idle=" + POOL_SIZE,
+                "--tennis.outbox.relay-enabled=false");
+        reservationService = context.getBean(ReservationService.class);
+        scheduleService = context.getBean(ScheduleService.class);
+        guestId = context.getBean(GuestRepository.class).save(Guest.builder().name("Benchmark Guest").build()).getId();
+        Long tennisCourtId = context.getBean(TennisCourtRepository.class).save(new TennisCourt("Benchmark Court")).getId();
+
+        LocalDate startDate = LocalDate.now().plusDays(7);
+        scheduleService.addSchedules(CreateRecurringSchedulesRequestDTO.builder()
+                .tennisCourtIds(Collections.singletonList(tennisCourtId))
+                .startDate(startDate)
+                .endDate(startDate.plusDays(SCHEDULE_DAYS - 1))
+                .openingTime(LocalTime.of(6, 0))
+                .closingTime(LocalTime.of(22, 0))
+                .build());
+
+        from = startDate.atStartOfDay();
+        scheduleIds = scheduleService.findSchedulesByDates(from, from.plusDays(SCHEDULE_DAYS), null, null, 1000)
+                .getSchedules().stream()
+                .map(ScheduleDTO::getId)
+                .collect(Collectors.toList());
+
+        if (replica) {
+            copy(context.getBean("primaryDataSource", DataSource.class), context.getBean("replicaDataSource", DataSource.class),
+                    directory.resolve("snapshot.sql"));
+        }
+    }
+
+    private static void copy(DataSource primary, DataSource replica, Path script) {
+        new JdbcTemplate(primary).execute("script to '" + script + "'");
+        new JdbcTemplate(replica).execute("runscript from '" + script + "'");
+        // the copy does not carry the statistics the primary has gathered, which the planner relies on
+        new JdbcTemplate(replica).execute("analyze");
+        try {
+            Files.delete(script);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("bookingsAndSearches")
+    @GroupThreads(2)
+    public ReservationDTO bookAndCancel() {
+        AuditContext.bind("10.0.1.1", guestId);
+        Long scheduleId = scheduleIds.get(Math.floorMod(next.getAndIncrement(), scheduleIds.size()));
+        try {
+            ReservationDTO reservation = reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                    .guestId(guestId)
+                    .scheduleId(scheduleId)
+                    .build());
+            return reservationService.cancelReservation(reservation.getId());
+        } catch (AlreadyExistsEntityException | BusinessException e) {
+            // the other booking thread holds the slot after wrapping around
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("bookingsAndSearches")
+    @GroupThreads(6)
+    public SchedulePageDTO searchSchedules() {
+        AuditContext.bind("10.0.2.1", null);
+        LocalDateTime start = from.plusDays(ThreadLocalRandom.current().nextInt(SCHEDULE_DAYS));
+        return scheduleService.findSchedulesByDates(start, start.plusDays(1), null, null, 20);
+    }
+}
@@ -0,0 +1,171 @@
+package com.tenniscourts.config.web;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.schedules.CreateRecurringSchedulesRequestDTO;
+import com.tenniscourts.schedules.ScheduleDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polling clients re-reading a set of reservations, schedules and tennis courts that do not change, over HTTP,
+ * with and without sending back the ETag of their last copy. The counters report the response body bytes and the
+ * CPU time of the process, clients included, per second; divided by the score they give the cost of a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ConditionalGetLoadBenchmark {
+
+    private static final int RESERVATIONS = 100;
+
+    @Param({"false", "true"})
+    private boolean conditional;
+
+    private ConfigurableApplicationContext context;
+
+    private String baseUrl;
+
+    private final List<String> paths = new ArrayList<>();
+
+    private final Map<String, String> eTags = new ConcurrentHashMap<>();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Traffic {
+
+        public long bodyBytes;
+
+        private long cpuNanosAtStart;
+
+        private int threads;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkParams benchmarkParams) {
+            bodyBytes = 0;
+            threads = benchmarkParams.getThreads();
+            cpuNanosAtStart = processCpuNanos();
+        }
+
+        /**
+         * The CPU time of the whole process since the iteration started, shared out between the benchmark threads
+         * so that the counters of all threads add up to it once.
+         */
+        public long cpuNanos() {
+            return (processCpuNanos() - cpuNanosAtStart) / threads;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:conditional-get-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--logging.level.root=warn",
+                "--tennis.outbox.relay-enabled=false");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        Long guestId = context.getBean(GuestRepository.class).save(Guest.builder().name("Benchmark Guest").build()).getId();
+        Long tennisCourtId = context.getBean(TennisCourtRepository.class).save(new TennisCourt("Benchmark Court")).getId();
+
+        LocalDate startDate = LocalDate.now().plusDays(7);
+        ScheduleService scheduleService = context.getBean(ScheduleService.class);
+        scheduleService.addSchedules(CreateRecurringSchedulesRequestDTO.builder()
+                .tennisCourtIds(Collections.singletonList(tennisCourtId))
+                .startDate(startDate)
+                .endDate(startDate.plusDays(9))
+                .openingTime(LocalTime.of(8, 0))
+                .closingTime(LocalTime.of(18, 0))
+                .build());
+
+        ReservationService reservationService = context.getBean(ReservationService.class);
+        for (ScheduleDTO schedule : scheduleService.findSchedulesByDates(startDate.atStartOfDay(), startDate.plusDays(10).atStartOfDay(), null, null, RESERVATIONS).getSchedules()) {
+            Long reservationId = reservationService.bookReservation(CreateReservationRequestDTO.builder().guestId(guestId).scheduleId(schedule.getId()).build()).getId();
+            paths.add("/reservations/" + reservationId);
+            paths.add("/schedules/" + schedule.getId());
+            paths.add("/tennis-courts/" + tennisCourtId);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int poll(Traffic traffic) {
+        String path = paths.get(Math.floorMod(next.getAndIncrement(), paths.size()));
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            String eTag = eTags.get(path);
+            if (conditional && eTag != null) {
+                connection.setRequestProperty("If-None-Match", eTag);
+            }
+
+            int status = connection.getResponseCode();
+            if (status == 200 && connection.getHeaderField("ETag") != null) {
+                eTags.put(path, connection.getHeaderField("ETag"));
+            }
+            InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            long bytes = 0;
+            if (inputStream != null) {
+                try (InputStream drained = inputStream) {
+                    byte[] buffer = new byte[4096];
+                    for (int read; (read = drained.read(buffer)) >= 0; ) {
+                        bytes += read;
+                    }
+                }
+            }
+            traffic.bodyBytes += bytes;
+            return status;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+}
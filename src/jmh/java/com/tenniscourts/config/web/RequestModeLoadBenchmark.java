@@ -0,0 +1,164 @@
+package com.tenniscourts.config.web;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.schedules.CreateRecurringSchedulesRequestDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Thread-per-request against request workers under a booking spike, over HTTP. Bookers book and cancel slots
+ * while readers fetch a cached tennis court; the container has fewer threads than there are clients, so in the
+ * thread-per-request mode readers queue behind bookers waiting on JDBC. Sample time reports the percentiles
+ * of each client group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RequestModeLoadBenchmark {
+
+    private static final int SCHEDULE_DAYS = 30;
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    private ConfigurableApplicationContext context;
+
+    private String baseUrl;
+
+    private List<Long> scheduleIds;
+
+    private Long guestId;
+
+    private Long tennisCourtId;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        System.setProperty("http.maxConnections", "128");
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--server.tomcat.max-threads=16",
+                "--tennis.web.async.enabled=" + async,
+                "--spring.datasource.url=jdbc:h2:mem:request-mode-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--logging.level.root=warn");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        guestId = context.getBean(GuestRepository.class).save(Guest.builder().name("Benchmark Guest").build()).getId();
+        tennisCourtId = context.getBean(TennisCourtRepository.class).save(new TennisCourt("Benchmark Court")).getId();
+
+        LocalDate startDate = LocalDate.now().plusDays(7);
+        ScheduleService scheduleService = context.getBean(ScheduleService.class);
+        scheduleService.addSchedules(CreateRecurringSchedulesRequestDTO.builder()
+                .tennisCourtIds(Collections.singletonList(tennisCourtId))
+                .startDate(startDate)
+                .endDate(startDate.plusDays(SCHEDULE_DAYS - 1))
+                .openingTime(LocalTime.of(6, 0))
+                .closingTime(LocalTime.of(22, 0))
+                .build());
+
+        LocalDateTime from = startDate.atStartOfDay();
+        scheduleIds = scheduleService.findSchedulesByDates(from, from.plusDays(SCHEDULE_DAYS), null, null, 1000)
+                .getSchedules().stream()
+                .map(schedule -> schedule.getId())
+                .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("spike")
+    @GroupThreads(48)
+    public int bookAndCancel() {
+        Long scheduleId = scheduleIds.get(Math.floorMod(next.getAndIncrement(), scheduleIds.size()));
+        HttpURLConnection booking = request("POST", "/reservations", "{\"guestId\": " + guestId + ", \"scheduleId\": " + scheduleId + "}");
+        int status = complete(booking);
+        if (status != 201) {
+            return status;
+        }
+
+        String location = booking.getHeaderField("Location");
+        return complete(request("PUT", location.substring(location.indexOf("/reservations")) + "/cancel", null));
+    }
+
+    @Benchmark
+    @Group("spike")
+    @GroupThreads(16)
+    public int findTennisCourt() {
+        return complete(request("GET", "/tennis-courts/" + tennisCourtId, null));
+    }
+
+    private HttpURLConnection request(String method, String path, String body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return connection;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int complete(HttpURLConnection connection) {
+        try {
+            int status = connection.getResponseCode();
+            InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (inputStream != null) {
+                try (InputStream drained = inputStream) {
+                    byte[] buffer = new byte[4096];
+                    while (drained.read(buffer) >= 0) {
+                        // drain so the connection is kept alive
+                    }
+                }
+            }
+            return status;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
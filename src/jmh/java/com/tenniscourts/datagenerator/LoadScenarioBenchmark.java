@@ -0,0 +1,173 @@
+package com.tenniscourts.datagenerator;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.reservations.ReservationStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mixed load over HTTP against a database filled by the {@link DataGenerator}: guests book free slots, look up
+ * reservations by id and search one day of schedules, concurrently. Sample time reports the p50 and p99 latency
+ * of each operation and throughput its operations per second.
+ * <p>
+ * Scale it with -p, e.g. {@code -p tennisCourts=100 -p guests=100000}; the generator's time is logged on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoadScenarioBenchmark {
+
+    private static final int SEARCH_PAGE_SIZE = 100;
+
+    @Param({"20"})
+    public int tennisCourts;
+
+    @Param({"10000"})
+    public int guests;
+
+    @Param({"365"})
+    public int days;
+
+    private ConfigurableApplicationContext context;
+
+    private String baseUrl;
+
+    private List<Long> freeScheduleIds;
+
+    private long firstGuestId;
+
+    private long firstReservationId;
+
+    private long lastReservationId;
+
+    private LocalDate startDate;
+
+    private final AtomicInteger nextFreeSchedule = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        System.setProperty("http.maxConnections", "64");
+        startDate = LocalDate.now().plusDays(1);
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-scenario-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--logging.level.root=warn",
+                "--logging.level.com.tenniscourts.datagenerator=info",
+                "--tennis.outbox.relay-enabled=false",
+                "--tennis.data-generator.enabled=true",
+                "--tennis.data-generator.tennis-courts=" + tennisCourts,
+                "--tennis.data-generator.guests=" + guests,
+                "--tennis.data-generator.days=" + days,
+                "--tennis.data-generator.start-date=" + startDate);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        firstGuestId = jdbcTemplate.queryForObject("select min(id) from guest where name like 'Guest %'", Long.class);
+        firstReservationId = jdbcTemplate.queryForObject("select min(id) from reservation", Long.class);
+        lastReservationId = jdbcTemplate.queryForObject("select max(id) from reservation", Long.class);
+        freeScheduleIds = jdbcTemplate.queryForList("select s.id from schedule s where s.start_date_time > ? and not exists " +
+                        "(select 1 from reservation r where r.schedule_id = s.id and r.reservation_status = ?)", Long.class,
+                Timestamp.valueOf(startDate.atStartOfDay()), ReservationStatus.READY_TO_PLAY.ordinal());
+        Collections.shuffle(freeScheduleIds, new Random(0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Books each free slot once; once they are all taken bookings are rejected with 409, which shows in the result.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public int booking() {
+        Long scheduleId = freeScheduleIds.get(Math.floorMod(nextFreeSchedule.getAndIncrement(), freeScheduleIds.size()));
+        long guestId = firstGuestId + ThreadLocalRandom.current().nextInt(guests);
+        return complete(request("POST", "/reservations", "{\"guestId\": " + guestId + ", \"scheduleId\": " + scheduleId + "}"));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public int lookup() {
+        long reservationId = ThreadLocalRandom.current().nextLong(firstReservationId, lastReservationId + 1);
+        return complete(request("GET", "/reservations/" + reservationId, null));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public int dateRangeSearch() {
+        LocalDate date = startDate.plusDays(ThreadLocalRandom.current().nextInt(days));
+        return complete(request("GET", "/schedules?startDate=" + date + "&endDate=" + date + "&size=" + SEARCH_PAGE_SIZE, null));
+    }
+
+    private HttpURLConnection request(String method, String path, String body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return connection;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int complete(HttpURLConnection connection) {
+        try {
+            int status = connection.getResponseCode();
+            InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (inputStream != null) {
+                try (InputStream drained = inputStream) {
+                    byte[] buffer = new byte[4096];
+                    while (drained.read(buffer) >= 0) {
+                        // drain so the connection is kept alive
+                    }
+                }
+            }
+            return status;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.tenniscourts.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quoting a booking and a refund from the compiled {@link PriceTable}, against walking the same rules per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingEngineBenchmark {
+
+    private PricingRules rules;
+
+    private PricingEngine pricingEngine;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 5, 9, 0);
+
+    private final LocalDateTime startDateTime = LocalDateTime.of(2030, 1, 7, 19, 0);
+
+    private final BigDecimal value = new BigDecimal("22.50");
+
+    @Setup
+    public void setUp() {
+        rules = new PricingRules();
+        rules.setPeakDeposit(new BigDecimal("15"));
+        Map<Long, BigDecimal> courtMultipliers = new HashMap<>();
+        for (long tennisCourtId = 1; tennisCourtId <= 50; tennisCourtId++) {
+            courtMultipliers.put(tennisCourtId, new BigDecimal("1.5"));
+        }
+        rules.setCourtMultipliers(courtMultipliers);
+        rules.setRefundTiers(Arrays.asList(new RefundTier(72, 100), new RefundTier(24, 50), new RefundTier(6, 25)));
+        pricingEngine = new PricingEngine(rules);
+    }
+
+    @Benchmark
+    public BigDecimal depositFromTable() {
+        return pricingEngine.deposit(7L, startDateTime);
+    }
+
+    @Benchmark
+    public BigDecimal depositByRuleWalk() {
+        DayOfWeek day = startDateTime.getDayOfWeek();
+        int hour = startDateTime.getHour();
+        boolean peak = rules.getPeakDays().contains(day) && hour >= rules.getPeakStartHour() && hour < rules.getPeakEndHour();
+        BigDecimal deposit = peak ? rules.getPeakDeposit() : rules.getOffPeakDeposit();
+        BigDecimal multiplier = rules.getCourtMultipliers().get(7L);
+        return multiplier == null ? deposit : deposit.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public BigDecimal refundFromTable() {
+        return pricingEngine.refundValue(value, startDateTime, now);
+    }
+
+    @Benchmark
+    public BigDecimal refundByRuleWalk() {
+        long hours = ChronoUnit.HOURS.between(now, startDateTime);
+        int percent = 0;
+        int notice = -1;
+        for (RefundTier tier : rules.getRefundTiers()) {
+            if (tier.getHoursBefore() <= hours && tier.getHoursBefore() > notice) {
+                notice = tier.getHoursBefore();
+                percent = tier.getRefundPercent();
+            }
+        }
+        return value.multiply(BigDecimal.valueOf(percent)).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+    }
+}
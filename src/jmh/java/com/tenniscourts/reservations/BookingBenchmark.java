@@ -0,0 +1,107 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.schedules.CreateRecurringSchedulesRequestDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Booking, cancellation and rescheduling end to end through the services, against an in-memory H2 database.
+ * Each operation leaves the slots it used free again, so a fixed pool of schedules is cycled through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingBenchmark {
+
+    private static final int SCHEDULE_DAYS = 30;
+
+    private ConfigurableApplicationContext context;
+
+    private ReservationService reservationService;
+
+    private List<Long> scheduleIds;
+
+    private Long guestId;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:booking-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--logging.level.root=warn");
+
+        reservationService = context.getBean(ReservationService.class);
+        guestId = context.getBean(GuestRepository.class).save(Guest.builder().name("Benchmark Guest").build()).getId();
+
+        TennisCourt tennisCourt = context.getBean(TennisCourtRepository.class).save(new TennisCourt("Benchmark Court"));
+        LocalDate startDate = LocalDate.now().plusDays(7);
+        context.getBean(ScheduleService.class).addSchedules(CreateRecurringSchedulesRequestDTO.builder()
+                .tennisCourtIds(Collections.singletonList(tennisCourt.getId()))
+                .startDate(startDate)
+                .endDate(startDate.plusDays(SCHEDULE_DAYS - 1))
+                .openingTime(LocalTime.of(6, 0))
+                .closingTime(LocalTime.of(22, 0))
+                .build());
+
+        LocalDateTime from = startDate.atStartOfDay();
+        scheduleIds = context.getBean(ScheduleService.class)
+                .findSchedulesByDates(from, from.plusDays(SCHEDULE_DAYS), null, null, 1000)
+                .getSchedules().stream()
+                .map(schedule -> schedule.getId())
+                .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationDTO bookAndCancel() {
+        ReservationDTO reservation = reservationService.bookReservation(booking(nextScheduleId()));
+        return reservationService.cancelReservation(reservation.getId());
+    }
+
+    @Benchmark
+    public ReservationDTO bookRescheduleAndCancel() {
+        ReservationDTO reservation = reservationService.bookReservation(booking(nextScheduleId()));
+        ReservationDTO rescheduled = reservationService.rescheduleReservation(reservation.getId(), nextScheduleId());
+        return reservationService.cancelReservation(rescheduled.getId());
+    }
+
+    private CreateReservationRequestDTO booking(Long scheduleId) {
+        return CreateReservationRequestDTO.builder().guestId(guestId).scheduleId(scheduleId).build();
+    }
+
+    private Long nextScheduleId() {
+        next = (next + 1) % scheduleIds.size();
+        return scheduleIds.get(next);
+    }
+}
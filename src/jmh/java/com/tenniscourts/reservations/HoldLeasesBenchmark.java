@@ -0,0 +1,63 @@
+package com.tenniscourts.reservations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taking a lease and sweeping it once expired, with 1,000 to 100,000 other holds pending. Memory taken per
+ * pending lease is logged on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HoldLeasesBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldLeasesBenchmark.class);
+
+    @Param({"1000", "10000", "100000"})
+    public int pending;
+
+    private HoldLeases holdLeases;
+
+    private final LocalDateTime expired = LocalDateTime.now().minusMinutes(1);
+
+    private long reservationId;
+
+    @Setup
+    public void setUp() {
+        HoldProperties properties = new HoldProperties();
+        properties.setMaxLeases(pending + 1);
+
+        long before = usedMemory();
+        holdLeases = new HoldLeases(null, properties, new SimpleMeterRegistry());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pending; i++) {
+            holdLeases.add(reservationId++, now.plusSeconds(600 + i % 600));
+        }
+        log.info("{} pending leases, about {} bytes each", pending, (usedMemory() - before) / pending);
+    }
+
+    private static long usedMemory() {
+        System.gc();
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    @Benchmark
+    public List<Long> holdAndExpire() {
+        holdLeases.add(reservationId++, expired);
+        return holdLeases.drainExpired(100);
+    }
+}
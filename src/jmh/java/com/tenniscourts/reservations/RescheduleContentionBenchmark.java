@@ -0,0 +1,113 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.schedules.CreateScheduleRequestDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Many guests moving one reservation back and forth between the same pair of slots at once. Each call tries to
+ * move the live reservation to the other slot; one caller per round wins and the rest are rejected without
+ * writing. The counters split the throughput into moved and rejected reschedules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class RescheduleContentionBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private ReservationService reservationService;
+
+    private Long firstScheduleId;
+
+    private Long secondScheduleId;
+
+    private final AtomicReference<ReservationDTO> current = new AtomicReference<>();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+
+        public long moved;
+
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            moved = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:reschedule-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--logging.level.root=warn");
+
+        reservationService = context.getBean(ReservationService.class);
+        Long guestId = context.getBean(GuestRepository.class).save(Guest.builder().name("Benchmark Guest").build()).getId();
+        Long tennisCourtId = context.getBean(TennisCourtRepository.class).save(new TennisCourt("Benchmark Court")).getId();
+
+        LocalDateTime startDateTime = LocalDateTime.now().plusDays(7).withNano(0);
+        firstScheduleId = addSchedule(tennisCourtId, startDateTime);
+        secondScheduleId = addSchedule(tennisCourtId, startDateTime.plusHours(1));
+
+        current.set(reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                .guestId(guestId)
+                .scheduleId(firstScheduleId)
+                .build()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void swap(Outcomes outcomes) {
+        ReservationDTO reservation = current.get();
+        Long target = firstScheduleId.equals(reservation.getSchedule().getId()) ? secondScheduleId : firstScheduleId;
+        try {
+            current.compareAndSet(reservation, reservationService.rescheduleReservation(reservation.getId(), target));
+            outcomes.moved++;
+        } catch (IllegalArgumentException | AlreadyExistsEntityException | BusinessException e) {
+            outcomes.rejected++;
+        }
+    }
+
+    private Long addSchedule(Long tennisCourtId, LocalDateTime startDateTime) {
+        CreateScheduleRequestDTO createScheduleRequestDTO = new CreateScheduleRequestDTO();
+        createScheduleRequestDTO.setTennisCourtId(tennisCourtId);
+        createScheduleRequestDTO.setStartDateTime(startDateTime);
+        return context.getBean(ScheduleService.class).addSchedule(tennisCourtId, createScheduleRequestDTO).getId();
+    }
+}
@@ -0,0 +1,166 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.TennisCourtApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Export of every reservation of an in-memory H2 database seeded with the given number of reservations, two per
+ * schedule, to a local gzip-compressed CSV file. Logs the rows per second, the compressed bytes per row, and the
+ * heap used by the seeded database before the export against the peak during it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReservationExportBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationExportBenchmark.class);
+
+    private static final int TENNIS_COURTS = 100;
+
+    private static final int GUESTS = 1000;
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private static final long FIRST_ID = 10_000_000L;
+
+    @Param({"100000", "1000000"})
+    public int reservations;
+
+    private ConfigurableApplicationContext context;
+
+    private ReservationExporter reservationExporter;
+
+    private LocalDateTime firstStart;
+
+    private Path file;
+
+    private long startNanos;
+
+    private long heapAtStart;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:export-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--logging.level.root=warn",
+                "--logging.level.com.tenniscourts.reservations.ReservationExportBenchmark=info",
+                "--tennis.outbox.relay-enabled=false");
+
+        reservationExporter = context.getBean(ReservationExporter.class);
+        file = Files.createTempFile("reservations", ".csv.gz");
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        int schedules = reservations / 2;
+        firstStart = LocalDateTime.now().plusDays(1).withMinute(0).withSecond(0).withNano(0);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int court = 0; court < TENNIS_COURTS; court++) {
+            rows.add(new Object[]{FIRST_ID + court, "Court " + court});
+        }
+        jdbcTemplate.batchUpdate("insert into tennis_court(id, name) values (?, ?)", rows);
+
+        rows.clear();
+        for (int guest = 0; guest < GUESTS; guest++) {
+            rows.add(new Object[]{FIRST_ID + guest, "Guest " + guest});
+        }
+        jdbcTemplate.batchUpdate("insert into guest(id, name) values (?, ?)", rows);
+
+        rows.clear();
+        String insertSchedule = "insert into schedule(id, tennis_court_id, start_date_time, end_date_time, version) values (?, ?, ?, ?, 0)";
+        for (int schedule = 0; schedule < schedules; schedule++) {
+            LocalDateTime start = firstStart.plusHours(schedule / TENNIS_COURTS);
+            rows.add(new Object[]{FIRST_ID + schedule, FIRST_ID + schedule % TENNIS_COURTS, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1))});
+            flush(jdbcTemplate, insertSchedule, rows, false);
+        }
+        flush(jdbcTemplate, insertSchedule, rows, true);
+
+        String insertReservation = "insert into reservation(id, guest_id, schedule_id, value, refund_value, reservation_status, schedule_start_date_time) " +
+                "values (?, ?, ?, ?, ?, ?, ?)";
+        for (int reservation = 0; reservation < reservations; reservation++) {
+            int schedule = reservation / 2;
+            boolean ready = reservation % 2 == 0;
+            rows.add(new Object[]{FIRST_ID + reservation, FIRST_ID + reservation % GUESTS, FIRST_ID + schedule,
+                    ready ? BigDecimal.TEN : BigDecimal.ZERO, ready ? null : new BigDecimal("7.50"),
+                    (ready ? ReservationStatus.READY_TO_PLAY : ReservationStatus.CANCELLED).ordinal(),
+                    Timestamp.valueOf(firstStart.plusHours(schedule / TENNIS_COURTS))});
+            flush(jdbcTemplate, insertReservation, rows, false);
+        }
+        flush(jdbcTemplate, insertReservation, rows, true);
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows, boolean force) {
+        if (rows.size() >= INSERT_BATCH_SIZE || (force && !rows.isEmpty())) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startMeasuring() {
+        System.gc();
+        heapAtStart = usedHeap(MemoryPoolMXBean::getUsage);
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        startNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void logMeasures() throws IOException {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        log.info("{} rows/s, {} bytes per row, {} MB of heap before, {} MB peak",
+                Math.round(reservations / seconds), String.format("%.1f", (double) Files.size(file) / reservations),
+                heapAtStart / (1024 * 1024), usedHeap(MemoryPoolMXBean::getPeakUsage) / (1024 * 1024));
+    }
+
+    private static long usedHeap(Function<MemoryPoolMXBean, MemoryUsage> usage) {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> usage.apply(pool).getUsed())
+                .sum();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        return reservationExporter.export(firstStart, firstStart.plusYears(1), file);
+    }
+}
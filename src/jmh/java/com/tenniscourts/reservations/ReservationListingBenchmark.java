@@ -0,0 +1,153 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.TennisCourtApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First pages of a guest's reservation history and of a court's upcoming reservations, against an in-memory H2
+ * database seeded with the given number of reservations: two per schedule, one ready to play and one cancelled,
+ * {@value #RESERVATIONS_PER_GUEST} per guest, spread over {@value #TENNIS_COURTS} courts. With indexed=false the
+ * listing indexes are dropped after seeding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReservationListingBenchmark {
+
+    private static final int TENNIS_COURTS = 100;
+
+    private static final int RESERVATIONS_PER_GUEST = 50;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private static final long FIRST_ID = 10_000_000L;
+
+    @Param({"100000", "1000000"})
+    public int reservations;
+
+    @Param({"true"})
+    public boolean indexed;
+
+    private ConfigurableApplicationContext context;
+
+    private ReservationService reservationService;
+
+    private int guests;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:listing-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--logging.level.root=warn",
+                "--tennis.outbox.relay-enabled=false");
+
+        reservationService = context.getBean(ReservationService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        guests = reservations / RESERVATIONS_PER_GUEST;
+        int schedules = reservations / 2;
+        LocalDateTime firstStart = LocalDateTime.now().plusDays(1).withMinute(0).withSecond(0).withNano(0);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int court = 0; court < TENNIS_COURTS; court++) {
+            rows.add(new Object[]{FIRST_ID + court, "Court " + court});
+        }
+        jdbcTemplate.batchUpdate("insert into tennis_court(id, name) values (?, ?)", rows);
+
+        rows.clear();
+        for (int guest = 0; guest < guests; guest++) {
+            rows.add(new Object[]{FIRST_ID + guest, "Guest " + guest});
+            flush(jdbcTemplate, "insert into guest(id, name) values (?, ?)", rows);
+        }
+        flush(jdbcTemplate, "insert into guest(id, name) values (?, ?)", rows, true);
+
+        String insertSchedule = "insert into schedule(id, tennis_court_id, start_date_time, end_date_time, version) values (?, ?, ?, ?, 0)";
+        for (int schedule = 0; schedule < schedules; schedule++) {
+            LocalDateTime start = firstStart.plusHours(schedule / TENNIS_COURTS);
+            rows.add(new Object[]{FIRST_ID + schedule, FIRST_ID + schedule % TENNIS_COURTS, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1))});
+            flush(jdbcTemplate, insertSchedule, rows);
+        }
+        flush(jdbcTemplate, insertSchedule, rows, true);
+
+        String insertReservation = "insert into reservation(id, guest_id, schedule_id, value, refund_value, reservation_status, schedule_start_date_time) " +
+                "values (?, ?, ?, ?, ?, ?, ?)";
+        for (int reservation = 0; reservation < reservations; reservation++) {
+            int schedule = reservation / 2;
+            boolean ready = reservation % 2 == 0;
+            rows.add(new Object[]{FIRST_ID + reservation, FIRST_ID + ThreadLocalRandom.current().nextInt(guests), FIRST_ID + schedule,
+                    ready ? BigDecimal.TEN : BigDecimal.ZERO, ready ? null : BigDecimal.TEN,
+                    (ready ? ReservationStatus.READY_TO_PLAY : ReservationStatus.CANCELLED).ordinal(),
+                    Timestamp.valueOf(firstStart.plusHours(schedule / TENNIS_COURTS))});
+            flush(jdbcTemplate, insertReservation, rows);
+        }
+        flush(jdbcTemplate, insertReservation, rows, true);
+
+        if (!indexed) {
+            jdbcTemplate.execute("drop index idx_reservation_guest_status_start");
+            jdbcTemplate.execute("drop index idx_reservation_schedule_status");
+            jdbcTemplate.execute("drop index idx_schedule_tennis_court_start");
+        }
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        flush(jdbcTemplate, sql, rows, false);
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows, boolean force) {
+        if (rows.size() >= INSERT_BATCH_SIZE || (force && !rows.isEmpty())) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationPageDTO guestHistoryReadyToPlay() {
+        return reservationService.findReservationsByGuest(randomGuestId(), ReservationStatus.READY_TO_PLAY, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ReservationPageDTO guestHistoryAllStatuses() {
+        return reservationService.findReservationsByGuest(randomGuestId(), null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ReservationPageDTO tennisCourtUpcoming() {
+        return reservationService.findUpcomingReservationsByTennisCourt(FIRST_ID + ThreadLocalRandom.current().nextInt(TENNIS_COURTS), null, null, PAGE_SIZE);
+    }
+
+    private Long randomGuestId() {
+        return FIRST_ID + ThreadLocalRandom.current().nextInt(guests);
+    }
+}
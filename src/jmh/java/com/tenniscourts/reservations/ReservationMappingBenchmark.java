@@ -0,0 +1,82 @@
+package com.tenniscourts.reservations;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tenniscourts.schedules.Schedule;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversion of reservations and their Jackson serialization, configured as in application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReservationMappingBenchmark {
+
+    private ReservationMapper reservationMapper;
+
+    private ObjectMapper objectMapper;
+
+    private Reservation reservation;
+
+    private ReservationDTO reservationDTO;
+
+    @Setup
+    public void setUp() {
+        reservationMapper = Mappers.getMapper(ReservationMapper.class);
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+
+        TennisCourt tennisCourt = new TennisCourt("Roland Garros - Court Philippe-Chatrier");
+        tennisCourt.setId(1L);
+
+        LocalDateTime startDateTime = LocalDateTime.of(2030, 6, 1, 10, 0);
+        Schedule schedule = Schedule.builder()
+                .tennisCourt(tennisCourt)
+                .startDateTime(startDateTime)
+                .endDateTime(startDateTime.plusHours(1))
+                .build();
+        schedule.setId(1L);
+
+        reservation = Reservation.builder()
+                .schedule(schedule)
+                .value(BigDecimal.TEN)
+                .reservationStatus(ReservationStatus.READY_TO_PLAY)
+                .build();
+        reservation.setId(1L);
+
+        reservationDTO = reservationMapper.map(reservation);
+    }
+
+    @Benchmark
+    public ReservationDTO mapReservation() {
+        return reservationMapper.map(reservation);
+    }
+
+    @Benchmark
+    public String serializeReservation() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(reservationDTO);
+    }
+
+    @Benchmark
+    public String mapAndSerializeReservation() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(reservationMapper.map(reservation));
+    }
+}
@@ -0,0 +1,66 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.pricing.PricingEngine;
+import com.tenniscourts.pricing.PricingRules;
+import com.tenniscourts.schedules.Schedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refund and cancellation rules of {@link ReservationService}, which need no repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReservationServiceBenchmark {
+
+    private ReservationService reservationService;
+
+    private Reservation fullRefundReservation;
+
+    private Reservation noRefundReservation;
+
+    @Setup
+    public void setUp() {
+        reservationService = new ReservationService(null, null, null, null, null, null, null, null, null, null, new PricingEngine(new PricingRules()), null, null, null);
+        fullRefundReservation = reservation(LocalDateTime.now().plusDays(2));
+        noRefundReservation = reservation(LocalDateTime.now().plusHours(3));
+    }
+
+    @Benchmark
+    public BigDecimal getRefundValueFullRefund() {
+        return reservationService.getRefundValue(fullRefundReservation);
+    }
+
+    @Benchmark
+    public BigDecimal getRefundValueNoRefund() {
+        return reservationService.getRefundValue(noRefundReservation);
+    }
+
+    @Benchmark
+    public Reservation validateCancellation() {
+        reservationService.validateCancellation(fullRefundReservation);
+        return fullRefundReservation;
+    }
+
+    private static Reservation reservation(LocalDateTime startDateTime) {
+        Schedule schedule = new Schedule();
+        schedule.setStartDateTime(startDateTime);
+        schedule.setEndDateTime(startDateTime.plusHours(1));
+
+        return Reservation.builder()
+                .schedule(schedule)
+                .value(BigDecimal.TEN)
+                .reservationStatus(ReservationStatus.READY_TO_PLAY)
+                .build();
+    }
+}
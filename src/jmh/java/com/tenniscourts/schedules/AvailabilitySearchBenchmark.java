@@ -0,0 +1,101 @@
+package com.tenniscourts.schedules;
+
+import com.tenniscourts.tenniscourts.TennisCourt;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searching two hours free on a Saturday afternoon across all the tennis courts, from 10 to 5,000 courts with a
+ * week of hourly slots each and close to half of them booked, on the calling thread alone against fanned out
+ * over three search workers and the calling thread in partitions of 64 courts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AvailabilitySearchBenchmark {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    private static final int OPENING_HOUR = 8;
+
+    private static final int CLOSING_HOUR = 22;
+
+    @Param({"10", "100", "1000", "5000"})
+    public int tennisCourts;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private SlotAvailabilityFeed slotAvailabilityFeed;
+
+    private AvailabilitySearchService availabilitySearchService;
+
+    private final LocalDateTime startDateTime = MONDAY.plusDays(5).withHour(12);
+
+    private final LocalDateTime endDateTime = MONDAY.plusDays(5).withHour(18);
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        slotAvailabilityFeed = new SlotAvailabilityFeed(meterRegistry);
+        CourtAvailabilityIndex courtAvailabilityIndex = new CourtAvailabilityIndex(null, null, meterRegistry, slotAvailabilityFeed);
+
+        Random random = new Random(42);
+        long scheduleId = 1;
+        for (long tennisCourtId = 1; tennisCourtId <= tennisCourts; tennisCourtId++) {
+            TennisCourt tennisCourt = new TennisCourt();
+            tennisCourt.setId(tennisCourtId);
+
+            List<Schedule> schedules = new ArrayList<>();
+            List<Long> booked = new ArrayList<>();
+            for (int day = 0; day < 7; day++) {
+                for (int hour = OPENING_HOUR; hour < CLOSING_HOUR; hour++) {
+                    Schedule schedule = Schedule.builder()
+                            .tennisCourt(tennisCourt)
+                            .startDateTime(MONDAY.plusDays(day).withHour(hour))
+                            .endDateTime(MONDAY.plusDays(day).withHour(hour + 1))
+                            .build();
+                    schedule.setId(scheduleId++);
+                    schedules.add(schedule);
+                    if (random.nextDouble() < 0.45) {
+                        booked.add(schedule.getId());
+                    }
+                }
+            }
+            courtAvailabilityIndex.addSchedules(schedules);
+            // one reservation per booked slot, numbered after it
+            booked.forEach(id -> courtAvailabilityIndex.markBooked(id, id));
+        }
+
+        AvailabilitySearchProperties properties = new AvailabilitySearchProperties();
+        properties.setParallelism(parallelism);
+        availabilitySearchService = new AvailabilitySearchService(courtAvailabilityIndex, new ScheduleMetrics(meterRegistry), properties, meterRegistry);
+    }
+
+    @TearDown
+    public void tearDown() {
+        availabilitySearchService.destroy();
+        slotAvailabilityFeed.destroy();
+    }
+
+    @Benchmark
+    public AvailabilitySearchResultDTO searchAllCourts() {
+        return availabilitySearchService.findFreeSlots(startDateTime, endDateTime, Duration.ofHours(2), null, 100);
+    }
+}
@@ -0,0 +1,78 @@
+package com.tenniscourts.schedules;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversion of schedule lists and their Jackson serialization, configured as in application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScheduleMappingBenchmark {
+
+    @Param({"1", "100"})
+    private int size;
+
+    private ScheduleMapper scheduleMapper;
+
+    private ObjectMapper objectMapper;
+
+    private List<Schedule> schedules;
+
+    private List<ScheduleDTO> scheduleDTOs;
+
+    @Setup
+    public void setUp() {
+        scheduleMapper = Mappers.getMapper(ScheduleMapper.class);
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+
+        TennisCourt tennisCourt = new TennisCourt("Roland Garros - Court Philippe-Chatrier");
+        tennisCourt.setId(1L);
+
+        LocalDateTime startDateTime = LocalDateTime.of(2030, 6, 1, 8, 0);
+        schedules = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Schedule schedule = Schedule.builder()
+                    .tennisCourt(tennisCourt)
+                    .startDateTime(startDateTime.plusHours(i))
+                    .endDateTime(startDateTime.plusHours(i + 1))
+                    .build();
+            schedule.setId((long) i);
+            schedules.add(schedule);
+        }
+
+        scheduleDTOs = scheduleMapper.map(schedules);
+    }
+
+    @Benchmark
+    public List<ScheduleDTO> mapSchedules() {
+        return scheduleMapper.map(schedules);
+    }
+
+    @Benchmark
+    public String serializeSchedules() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(scheduleDTOs);
+    }
+}
@@ -0,0 +1,129 @@
+package com.tenniscourts.waitlists;
+
+import com.tenniscourts.TennisCourtApplication;
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.ReservationDTO;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.reservations.ReservationSummaryDTO;
+import com.tenniscourts.schedules.CreateScheduleRequestDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancelling a booked slot with nobody waiting for it, which only frees it, against cancelling one with guests in
+ * line, which books it for the first of them in the same transaction. The difference is the promotion; the
+ * promoted guest holds the slot as soon as the cancellation returns. Before each cancellation the slot is booked
+ * again if it was freed, and the line is topped up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WaitlistPromotionBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistPromotionBenchmark.class);
+
+    @Param({"0", "1", "20"})
+    public int waiting;
+
+    ConfigurableApplicationContext context;
+
+    ReservationService reservationService;
+
+    WaitlistService waitlistService;
+
+    Long tennisCourtId;
+
+    Long scheduleId;
+
+    final List<Long> guestIds = new ArrayList<>();
+
+    int nextGuest;
+
+    Long reservationId;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(TennisCourtApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:waitlist-promotion-benchmark",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.type=info",
+                "--tennis.outbox.relay-enabled=false");
+        reservationService = context.getBean(ReservationService.class);
+        waitlistService = context.getBean(WaitlistService.class);
+        tennisCourtId = context.getBean(TennisCourtRepository.class).save(new TennisCourt("Benchmark Court")).getId();
+
+        CreateScheduleRequestDTO createScheduleRequestDTO = new CreateScheduleRequestDTO();
+        createScheduleRequestDTO.setTennisCourtId(tennisCourtId);
+        createScheduleRequestDTO.setStartDateTime(LocalDateTime.now().plusDays(7).withNano(0));
+        scheduleId = context.getBean(ScheduleService.class).addSchedule(tennisCourtId, createScheduleRequestDTO).getId();
+
+        GuestRepository guestRepository = context.getBean(GuestRepository.class);
+        for (int i = 0; i < waiting + 2; i++) {
+            guestIds.add(guestRepository.save(Guest.builder().name("Benchmark Guest " + i).build()).getId());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void bookAndFillTheLine() {
+        List<ReservationSummaryDTO> booked = reservationService.findUpcomingReservationsByTennisCourt(tennisCourtId, null, null, 1).getReservations();
+        reservationId = booked.isEmpty()
+                ? reservationService.bookReservation(CreateReservationRequestDTO.builder().guestId(this.nextGuestId()).scheduleId(scheduleId).build()).getId()
+                : booked.get(0).getId();
+
+        long missing = waiting - context.getBean(WaitlistEntryRepository.class)
+                .countByScheduleIdAndStatusAndIdLessThanEqual(scheduleId, WaitlistStatus.WAITING, Long.MAX_VALUE);
+        for (int attempts = 0; missing > 0 && attempts < guestIds.size(); attempts++) {
+            try {
+                waitlistService.joinWaitlist(CreateWaitlistEntryRequestDTO.builder().guestId(this.nextGuestId()).scheduleId(scheduleId).build());
+                missing--;
+            } catch (AlreadyExistsEntityException e) {
+                // that guest is in line already
+            }
+        }
+    }
+
+    private Long nextGuestId() {
+        return guestIds.get(nextGuest++ % guestIds.size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        Timer promotions = context.getBean(MeterRegistry.class).find("tennis.waitlists.promotion").timer();
+        if (promotions != null && promotions.count() > 0) {
+            log.info("{} promotions, mean {} ms, max {} ms from the slot being freed to the promotion committing", promotions.count(),
+                    String.format("%.3f", promotions.mean(TimeUnit.MILLISECONDS)), String.format("%.3f", promotions.max(TimeUnit.MILLISECONDS)));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationDTO cancel() {
+        return reservationService.cancelReservation(reservationId);
+    }
+}
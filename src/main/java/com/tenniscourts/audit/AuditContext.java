@@ -0,0 +1,62 @@
+package com.tenniscourts.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Who is writing the current entities. The caller is bound to the request thread by {@link AuditContextFilter};
+ * writes outside of a request are attributed to the system user on this host, whose address is resolved once.
+ */
+public final class AuditContext {
+
+    private static final String HOST_ADDRESS = resolveHostAddress();
+
+    private static final Caller SYSTEM_CALLER = new Caller(HOST_ADDRESS, CustomAuditEntityListener.USER_SYSTEM_ID);
+
+    private static final ThreadLocal<Caller> CURRENT_CALLER = new ThreadLocal<>();
+
+    private AuditContext() {
+    }
+
+    public static void bind(String ipNumber, Long userId) {
+        CURRENT_CALLER.set(new Caller(ipNumber == null ? HOST_ADDRESS : ipNumber,
+                userId == null ? CustomAuditEntityListener.USER_SYSTEM_ID : userId));
+    }
+
+    public static void bind(Caller caller) {
+        CURRENT_CALLER.set(caller);
+    }
+
+    public static void clear() {
+        CURRENT_CALLER.remove();
+    }
+
+    public static Caller currentCaller() {
+        Caller caller = CURRENT_CALLER.get();
+        return caller == null ? SYSTEM_CALLER : caller;
+    }
+
+    public static String hostAddress() {
+        return HOST_ADDRESS;
+    }
+
+    private static String resolveHostAddress() {
+        try {
+            return InetAddress.getLocalHost().getHostAddress();
+        } catch (UnknownHostException e) {
+            return InetAddress.getLoopbackAddress().getHostAddress();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Caller {
+
+        private final String ipNumber;
+
+        private final Long userId;
+    }
+}
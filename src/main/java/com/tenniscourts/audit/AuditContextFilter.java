@@ -0,0 +1,44 @@
+package com.tenniscourts.audit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * Binds the caller address and the authenticated user to the {@link AuditContext} for the request.
+ * <p>
+ * Neither is read from request headers: the address is the remote address, which the container only rewrites from
+ * X-Forwarded-For for proxies listed in server.tomcat.internal-proxies, and the user is the name of the request
+ * principal, so clients cannot forge the audit columns.
+ */
+@Component
+public class AuditContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        AuditContext.bind(request.getRemoteAddr(), userId(request.getUserPrincipal()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            AuditContext.clear();
+        }
+    }
+
+    private static Long userId(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(principal.getName().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
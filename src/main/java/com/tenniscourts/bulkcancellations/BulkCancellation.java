@@ -0,0 +1,74 @@
+package com.tenniscourts.bulkcancellations;
+
+import com.tenniscourts.config.persistence.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * A job closing a set of tennis courts within a time window and cancelling every reservation taking them. The id of the
+ * last settled reservation is the checkpoint a stopped or failed job resumes from.
+ */
+@Entity
+@Table
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BulkCancellation extends BaseEntity<Long> {
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @NotNull
+    private Set<Long> tennisCourtIds;
+
+    @Column
+    @NotNull
+    private LocalDateTime startDateTime;
+
+    @Column
+    @NotNull
+    private LocalDateTime endDateTime;
+
+    @Column
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private BulkCancellationStatus status;
+
+    @Column
+    @NotNull
+    private Long lastReservationId;
+
+    @Column
+    private long cancelledReservations;
+
+    @Column
+    private long skippedReservations;
+
+    @Column
+    @NotNull
+    private BigDecimal refundedValue;
+
+    @Column
+    private String failure;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+}
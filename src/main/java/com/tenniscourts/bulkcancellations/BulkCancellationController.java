@@ -0,0 +1,42 @@
+package com.tenniscourts.bulkcancellations;
+
+import com.tenniscourts.config.BaseRestController;
+import io.swagger.annotations.ApiOperation;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/bulk-cancellations")
+@AllArgsConstructor
+public class BulkCancellationController extends BaseRestController {
+
+    private final BulkCancellationService bulkCancellationService;
+
+    @ApiOperation("Closes the given courts within a time window and starts cancelling every reservation in it, refunding ready to play ones")
+    @PostMapping
+    public ResponseEntity<BulkCancellationDTO> startBulkCancellation(@Valid @RequestBody CreateBulkCancellationRequestDTO createBulkCancellationRequestDTO) {
+        BulkCancellationDTO bulkCancellation = bulkCancellationService.startBulkCancellation(createBulkCancellationRequestDTO);
+        return ResponseEntity.accepted().location(locationByEntity(bulkCancellation.getId())).body(bulkCancellation);
+    }
+
+    @ApiOperation("Reports the progress of a bulk cancellation")
+    @GetMapping("/{bulkCancellationId}")
+    public ResponseEntity<BulkCancellationDTO> findBulkCancellation(@PathVariable Long bulkCancellationId) {
+        return ResponseEntity.ok(bulkCancellationService.findBulkCancellation(bulkCancellationId));
+    }
+
+    @ApiOperation("Resumes a failed bulk cancellation from its checkpoint")
+    @PutMapping("/{bulkCancellationId}/resume")
+    public ResponseEntity<BulkCancellationDTO> resumeBulkCancellation(@PathVariable Long bulkCancellationId) {
+        return ResponseEntity.accepted().body(bulkCancellationService.resumeBulkCancellation(bulkCancellationId));
+    }
+}
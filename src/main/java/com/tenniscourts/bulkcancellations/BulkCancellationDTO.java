@@ -0,0 +1,44 @@
+package com.tenniscourts.bulkcancellations;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class BulkCancellationDTO {
+
+    private Long id;
+
+    private Set<Long> tennisCourtIds;
+
+    private LocalDateTime startDateTime;
+
+    private LocalDateTime endDateTime;
+
+    private String status;
+
+    private Long lastReservationId;
+
+    private long cancelledReservations;
+
+    private long skippedReservations;
+
+    /**
+     * Ready to play and held reservations of the window not settled yet.
+     */
+    private long remainingReservations;
+
+    private BigDecimal refundedValue;
+
+    private String failure;
+
+    private LocalDateTime finishedAt;
+}
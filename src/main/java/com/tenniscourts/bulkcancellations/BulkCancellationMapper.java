@@ -0,0 +1,11 @@
+package com.tenniscourts.bulkcancellations;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface BulkCancellationMapper {
+
+    @Mapping(target = "remainingReservations", ignore = true)
+    BulkCancellationDTO map(BulkCancellation source);
+}
@@ -0,0 +1,22 @@
+package com.tenniscourts.bulkcancellations;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+public interface BulkCancellationRepository extends JpaRepository<BulkCancellation, Long> {
+
+    /**
+     * Locks the job for one chunk, so that a second runner resuming the same job waits for the checkpoint.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BulkCancellation b where b.id = :id")
+    Optional<BulkCancellation> findForUpdateById(@Param("id") Long id);
+
+    List<BulkCancellation> findByStatus(BulkCancellationStatus status);
+}
@@ -0,0 +1,341 @@
+package com.tenniscourts.bulkcancellations;
+
+import com.tenniscourts.audit.AuditContext;
+import com.tenniscourts.exceptions.EntityNotFoundException;
+import com.tenniscourts.outbox.OutboxService;
+import com.tenniscourts.pricing.PricingEngine;
+import com.tenniscourts.reservations.CancellableReservation;
+import com.tenniscourts.reservations.ReservationMetrics;
+import com.tenniscourts.reservations.ReservationRepository;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.reservations.ReservationStatus;
+import com.tenniscourts.reservations.ReservationStatusChangedDTO;
+import com.tenniscourts.schedules.CourtAvailabilityIndex;
+import com.tenniscourts.schedules.ScheduleChangedEvent;
+import com.tenniscourts.schedules.ScheduleRepository;
+import com.tenniscourts.waitlists.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Closes the schedules of a set of tennis courts within a time window, for when a venue has to close, and cancels
+ * every reservation taking one of them: ready to play ones are refunded, held ones are released.
+ * <p>
+ * The schedules are closed in the transaction that starts the job, so no booking, hold or waitlist join can take
+ * them from then on, the slots freed by the cancellations stay closed, and the guests waiting for them are taken
+ * out of line. Jobs run one at a time on a background
+ * thread, in chunks of {@value #CHUNK_SIZE} reservations read in id order. Each chunk is one transaction: the
+ * refunds are priced from a projection of the rows, the reservations and their schedule versions are written with
+ * JDBC batch updates, the outbox events are appended, and the job's checkpoint and totals are advanced. A job
+ * interrupted by a shutdown is resumed from its checkpoint on the next start; a failed one is resumed on request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkCancellationService implements DisposableBean {
+
+    static final int CHUNK_SIZE = 500;
+
+    /**
+     * Only reservations still ready to play are cancelled; one cancelled or rescheduled meanwhile is skipped.
+     */
+    private static final String CANCEL_RESERVATION_SQL = "update reservation set reservation_status = ?, value = ?, refund_value = ?, " +
+            "date_update = ?, user_update = ?, ip_number_update = ? where id = ? and reservation_status = ?";
+
+    /**
+     * Only reservations still held are released; one expired meanwhile is skipped. A hold cannot be confirmed once
+     * its schedule is closed.
+     */
+    private static final String RELEASE_HOLD_SQL = "update reservation set reservation_status = ?, " +
+            "date_update = ?, user_update = ?, ip_number_update = ? where id = ? and reservation_status = ?";
+
+    /**
+     * Same effect as the optimistic force increment of a booking: concurrent bookings and reschedules of these
+     * schedules fail on commit and retry against the cancelled state.
+     */
+    private static final String BUMP_SCHEDULE_VERSION_SQL = "update schedule set version = version + 1 where id = ?";
+
+    private final BulkCancellationRepository bulkCancellationRepository;
+
+    private final BulkCancellationMapper bulkCancellationMapper;
+
+    private final ReservationRepository reservationRepository;
+
+    private final ScheduleRepository scheduleRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CourtAvailabilityIndex courtAvailabilityIndex;
+
+    private final ReservationMetrics reservationMetrics;
+
+    private final OutboxService outboxService;
+
+    private final PricingEngine pricingEngine;
+
+    private final WaitlistService waitlistService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("bulk-cancellation-"));
+
+    private volatile boolean stopping;
+
+    public BulkCancellationDTO startBulkCancellation(CreateBulkCancellationRequestDTO request) {
+        if (!request.getEndDateTime().isAfter(request.getStartDateTime())) {
+            throw new IllegalArgumentException("End date time must be after start date time.");
+        }
+
+        BulkCancellation bulkCancellation = transactionTemplate.execute(status -> {
+            BulkCancellation started = bulkCancellationRepository.save(BulkCancellation.builder()
+                    .tennisCourtIds(new HashSet<>(request.getTennisCourtIds()))
+                    .startDateTime(request.getStartDateTime())
+                    .endDateTime(request.getEndDateTime())
+                    .status(BulkCancellationStatus.RUNNING)
+                    .lastReservationId(0L)
+                    .refundedValue(BigDecimal.ZERO)
+                    .build());
+            this.closeSchedules(started);
+            return started;
+        });
+
+        this.submit(bulkCancellation.getId());
+        return bulkCancellationMapper.map(bulkCancellation);
+    }
+
+    public BulkCancellationDTO resumeBulkCancellation(Long bulkCancellationId) {
+        BulkCancellation bulkCancellation = transactionTemplate.execute(status -> {
+            BulkCancellation failed = this.findForUpdate(bulkCancellationId);
+            if (!BulkCancellationStatus.FAILED.equals(failed.getStatus())) {
+                throw new IllegalArgumentException("Only a failed bulk cancellation can be resumed.");
+            }
+
+            failed.setStatus(BulkCancellationStatus.RUNNING);
+            failed.setFailure(null);
+            return failed;
+        });
+
+        this.submit(bulkCancellationId);
+        return bulkCancellationMapper.map(bulkCancellation);
+    }
+
+    @Transactional(readOnly = true)
+    public BulkCancellationDTO findBulkCancellation(Long bulkCancellationId) {
+        BulkCancellation bulkCancellation = bulkCancellationRepository.findById(bulkCancellationId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Bulk cancellation not found.");
+        });
+
+        BulkCancellationDTO bulkCancellationDTO = bulkCancellationMapper.map(bulkCancellation);
+        if (!BulkCancellationStatus.COMPLETED.equals(bulkCancellation.getStatus())) {
+            bulkCancellationDTO.setRemainingReservations(reservationRepository.countByReservationStatusAndTennisCourtsAndWindow(
+                    ReservationStatus.TAKING_SLOT, bulkCancellation.getTennisCourtIds(),
+                    this.windowStart(bulkCancellation, LocalDateTime.now()), bulkCancellation.getEndDateTime(),
+                    bulkCancellation.getLastReservationId()));
+        }
+        return bulkCancellationDTO;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        transactionTemplate.execute(status -> bulkCancellationRepository.findByStatus(BulkCancellationStatus.RUNNING))
+                .forEach(bulkCancellation -> this.submit(bulkCancellation.getId()));
+    }
+
+    private void submit(Long bulkCancellationId) {
+        executor.execute(() -> this.run(bulkCancellationId));
+    }
+
+    void run(Long bulkCancellationId) {
+        // in a read-write transaction, so that a job just started is found even when reads go to a replica
+        BulkCancellation bulkCancellation = transactionTemplate.execute(status -> bulkCancellationRepository.findById(bulkCancellationId)).orElseThrow(() -> {
+            throw new EntityNotFoundException("Bulk cancellation not found.");
+        });
+
+        // writes are attributed to whoever started the job, also when it resumes after a restart
+        AuditContext.bind(bulkCancellation.getIpNumberCreate(), bulkCancellation.getUserCreate());
+        try {
+            // a no-op unless the job was created elsewhere, or its window started earlier than the last run
+            transactionTemplate.execute(status -> {
+                this.closeSchedules(this.findForUpdate(bulkCancellationId));
+                return null;
+            });
+
+            boolean more;
+            do {
+                more = transactionTemplate.execute(status -> this.settleChunk(bulkCancellationId));
+            } while (more && !stopping);
+        } catch (RuntimeException e) {
+            log.warn("Bulk cancellation {} failed, it can be resumed from its checkpoint", bulkCancellationId, e);
+            transactionTemplate.execute(status -> {
+                BulkCancellation failed = this.findForUpdate(bulkCancellationId);
+                failed.setStatus(BulkCancellationStatus.FAILED);
+                failed.setFailure(String.valueOf(e.getMessage()));
+                return null;
+            });
+        } finally {
+            AuditContext.clear();
+        }
+    }
+
+    /**
+     * Closes the schedules of the job's window that are still open and expires the waitlist entries for them. Their
+     * versions are bumped, so bookings and joins racing the closure fail on commit and find the schedules closed when
+     * they retry.
+     */
+    private void closeSchedules(BulkCancellation bulkCancellation) {
+        if (!BulkCancellationStatus.RUNNING.equals(bulkCancellation.getStatus())) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = this.windowStart(bulkCancellation, now);
+        AuditContext.Caller caller = AuditContext.currentCaller();
+        int closed = scheduleRepository.closeByTennisCourtsAndWindow(bulkCancellation.getTennisCourtIds(), windowStart,
+                bulkCancellation.getEndDateTime(), now, caller.getUserId(), caller.getIpNumber());
+        if (closed == 0) {
+            return;
+        }
+
+        courtAvailabilityIndex.markClosed(scheduleRepository.findClosedIdsByTennisCourtsAndWindow(bulkCancellation.getTennisCourtIds(),
+                windowStart, bulkCancellation.getEndDateTime()));
+        waitlistService.expireWaiting(bulkCancellation.getTennisCourtIds(), windowStart, bulkCancellation.getEndDateTime());
+        bulkCancellation.getTennisCourtIds().forEach(tennisCourtId -> applicationEventPublisher.publishEvent(new ScheduleChangedEvent(tennisCourtId)));
+    }
+
+    /**
+     * Settles the next chunk after the checkpoint and returns whether there may be more.
+     */
+    private boolean settleChunk(Long bulkCancellationId) {
+        BulkCancellation bulkCancellation = this.findForUpdate(bulkCancellationId);
+        if (!BulkCancellationStatus.RUNNING.equals(bulkCancellation.getStatus())) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CancellableReservation> reservations = reservationRepository.findPageByReservationStatusAndTennisCourtsAndWindow(
+                ReservationStatus.TAKING_SLOT, bulkCancellation.getTennisCourtIds(),
+                this.windowStart(bulkCancellation, now), bulkCancellation.getEndDateTime(),
+                bulkCancellation.getLastReservationId(), PageRequest.of(0, CHUNK_SIZE));
+
+        if (reservations.isEmpty()) {
+            bulkCancellation.setStatus(BulkCancellationStatus.COMPLETED);
+            bulkCancellation.setFinishedAt(now);
+            return false;
+        }
+
+        // schedules in id order, as a reschedule locks them, so that the two cannot deadlock
+        Set<Long> scheduleIds = new TreeSet<>();
+        List<BigDecimal> refundValues = new ArrayList<>(reservations.size());
+        List<Object[]> cancellations = new ArrayList<>(reservations.size());
+        List<Object[]> releases = new ArrayList<>();
+        AuditContext.Caller caller = AuditContext.currentCaller();
+        for (CancellableReservation reservation : reservations) {
+            scheduleIds.add(reservation.getScheduleId());
+            if (ReservationStatus.HELD.equals(reservation.getReservationStatus())) {
+                // a hold was never paid for, so there is nothing to refund
+                refundValues.add(null);
+                releases.add(new Object[]{ReservationStatus.CANCELLED.ordinal(), Timestamp.valueOf(now), caller.getUserId(), caller.getIpNumber(),
+                        reservation.getId(), ReservationStatus.HELD.ordinal()});
+                continue;
+            }
+
+            BigDecimal refundValue = pricingEngine.refundValue(reservation.getValue(), reservation.getStartDateTime(), now);
+            refundValues.add(refundValue);
+            cancellations.add(new Object[]{ReservationStatus.CANCELLED.ordinal(), reservation.getValue().subtract(refundValue), refundValue,
+                    Timestamp.valueOf(now), caller.getUserId(), caller.getIpNumber(), reservation.getId(), ReservationStatus.READY_TO_PLAY.ordinal()});
+        }
+
+        List<Object[]> schedules = new ArrayList<>(scheduleIds.size());
+        scheduleIds.forEach(scheduleId -> schedules.add(new Object[]{scheduleId}));
+        jdbcTemplate.batchUpdate(BUMP_SCHEDULE_VERSION_SQL, schedules);
+        int[] cancelledRows = jdbcTemplate.batchUpdate(CANCEL_RESERVATION_SQL, cancellations);
+        int[] releasedRows = jdbcTemplate.batchUpdate(RELEASE_HOLD_SQL, releases);
+
+        Set<Long> tennisCourtIds = new HashSet<>();
+        BigDecimal refunded = BigDecimal.ZERO;
+        long cancelled = 0;
+        int cancellation = 0;
+        int release = 0;
+        for (int i = 0; i < reservations.size(); i++) {
+            CancellableReservation reservation = reservations.get(i);
+            BigDecimal refundValue = refundValues.get(i);
+            boolean held = ReservationStatus.HELD.equals(reservation.getReservationStatus());
+            if ((held ? releasedRows[release++] : cancelledRows[cancellation++]) == 0) {
+                continue;
+            }
+
+            outboxService.append(ReservationService.OUTBOX_AGGREGATE_TYPE, reservation.getId(), ReservationService.OUTBOX_STATUS_CHANGED,
+                    ReservationStatusChangedDTO.builder()
+                            .reservationId(reservation.getId())
+                            .scheduleId(reservation.getScheduleId())
+                            .guestId(reservation.getGuestId())
+                            .fromStatus(reservation.getReservationStatus())
+                            .toStatus(ReservationStatus.CANCELLED)
+                            .value(held ? reservation.getValue() : reservation.getValue().subtract(refundValue))
+                            .refundValue(refundValue)
+                            .build());
+            // keeps the slot's reservations in step; the slot is closed, so it is not reported free
+            courtAvailabilityIndex.markFree(reservation.getScheduleId(), reservation.getId());
+            if (!held) {
+                reservationMetrics.refund(reservation.getValue(), refundValue);
+                refunded = refunded.add(refundValue);
+            }
+            reservationMetrics.transition(reservation.getReservationStatus(), ReservationStatus.CANCELLED);
+
+            tennisCourtIds.add(reservation.getTennisCourtId());
+            cancelled++;
+        }
+        tennisCourtIds.forEach(tennisCourtId -> applicationEventPublisher.publishEvent(new ScheduleChangedEvent(tennisCourtId)));
+
+        bulkCancellation.setLastReservationId(reservations.get(reservations.size() - 1).getId());
+        bulkCancellation.setCancelledReservations(bulkCancellation.getCancelledReservations() + cancelled);
+        bulkCancellation.setSkippedReservations(bulkCancellation.getSkippedReservations() + reservations.size() - cancelled);
+        bulkCancellation.setRefundedValue(bulkCancellation.getRefundedValue().add(refunded));
+        return true;
+    }
+
+    /**
+     * Slots that already started are played or forfeited, and are left alone as a single cancellation would.
+     */
+    private LocalDateTime windowStart(BulkCancellation bulkCancellation, LocalDateTime now) {
+        return bulkCancellation.getStartDateTime().isAfter(now) ? bulkCancellation.getStartDateTime() : now;
+    }
+
+    private BulkCancellation findForUpdate(Long bulkCancellationId) {
+        return bulkCancellationRepository.findForUpdateById(bulkCancellationId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Bulk cancellation not found.");
+        });
+    }
+
+    /**
+     * Stops after the chunk in progress; the job stays running and is resumed on the next start.
+     */
+    @Override
+    public void destroy() {
+        stopping = true;
+        executor.shutdown();
+    }
+}
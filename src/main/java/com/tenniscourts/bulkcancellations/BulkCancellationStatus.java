@@ -0,0 +1,7 @@
+package com.tenniscourts.bulkcancellations;
+
+public enum BulkCancellationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,6 +1,7 @@
 package com.tenniscourts.config;
 
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import springfox.documentation.annotations.ApiIgnore;
 
 import java.net.URI;
@@ -9,7 +10,14 @@ import java.net.URI;
 public class BaseRestController {
 
   protected URI locationByEntity(Long entityId){
-        return ServletUriComponentsBuilder.fromCurrentRequest().path(
+        return locationByEntity(ServletUriComponentsBuilder.fromCurrentRequest(), entityId);
+    }
+
+  /**
+   * For handlers completing off the request thread, which have to capture the current request up front.
+   */
+  protected URI locationByEntity(UriComponentsBuilder currentRequest, Long entityId){
+        return currentRequest.cloneBuilder().path(
                 "/{id}").buildAndExpand(entityId).toUri();
     }
 }
@@ -0,0 +1,54 @@
+package com.tenniscourts.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Bounded Caffeine caches in front of lookups that are read on nearly every call but rarely change. Every cache
+ * records statistics, which actuator publishes as cache.gets (hit/miss), cache.puts and cache.evictions.
+ * <p>
+ * Caches hold DTOs, never entities, and cached values are shared between callers and must be treated as read-only.
+ * Puts and evictions made within a transaction are applied once it commits, so a concurrent read between an
+ * eviction and the commit cannot cache the old value again.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TENNIS_COURTS = "tennisCourts";
+
+    public static final String TENNIS_COURT_SCHEDULES = "tennisCourtSchedules";
+
+    public static final String TENNIS_COURT_VERSIONS = "tennisCourtVersions";
+
+    public static final String GUESTS = "guests";
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(Arrays.asList(
+                cache(TENNIS_COURTS, 1_000, Duration.ofMinutes(30)),
+                cache(TENNIS_COURT_SCHEDULES, 200, Duration.ofMinutes(5)),
+                cache(TENNIS_COURT_VERSIONS, 1_000, Duration.ofMinutes(30)),
+                cache(GUESTS, 10_000, Duration.ofMinutes(30))));
+        cacheManager.afterPropertiesSet();
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static CaffeineCache cache(String name, long maximumSize, Duration expireAfterWrite) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(), false);
+    }
+}
@@ -0,0 +1,58 @@
+package com.tenniscourts.config.idempotency;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps completed responses in the idempotency_record table, so keys keep replaying across restarts. Expired
+ * rows are ignored on lookup and purged periodically.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "tennis.idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final IdempotencyProperties properties;
+
+    /**
+     * Read-write, so that a retry is checked against the primary even when read-only work goes to a replica.
+     */
+    @Override
+    @Transactional
+    public Optional<IdempotentResponse> find(String key) {
+        return idempotencyRecordRepository.findByIdempotencyKeyAndCreatedAtAfter(key, LocalDateTime.now().minus(properties.getTtl()))
+                .map(record -> new IdempotentResponse(record.getFingerprint(), record.getStatus(), record.getLocation()));
+    }
+
+    /**
+     * Flushes the insert, so that a key stored concurrently surfaces as a primary key violation right here.
+     */
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        try {
+            idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .fingerprint(response.getFingerprint())
+                    .status(response.getStatus())
+                    .location(response.getLocation())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // stored concurrently by another instance; the first response stands
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tennis.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteByCreatedAtBefore(LocalDateTime.now().minus(properties.getTtl()));
+    }
+}
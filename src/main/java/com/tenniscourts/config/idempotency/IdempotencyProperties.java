@@ -0,0 +1,32 @@
+package com.tenniscourts.config.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Where completed responses are kept: "memory" for a bounded in-process cache, "database" for a table that
+     * survives restarts.
+     */
+    private String store = "memory";
+
+    /**
+     * How long a key replays its original response.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Keys kept by the memory store before the least valuable ones are evicted.
+     */
+    private long maximumSize = 100_000;
+
+}
@@ -0,0 +1,59 @@
+package com.tenniscourts.config.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "createdAt"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 300)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(length = 2048)
+    private String location;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Records are only ever inserted, so saving one always persists it; a second record with the same key then
+     * fails on the primary key instead of being merged over the first.
+     */
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.tenniscourts.config.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    Optional<IdempotentResponse> find(String key);
+
+    void save(String key, IdempotentResponse response);
+}
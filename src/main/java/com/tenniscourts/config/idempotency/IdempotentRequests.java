@@ -0,0 +1,125 @@
+package com.tenniscourts.config.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Honors the Idempotency-Key header of creating requests. The first request with a key runs and its response is
+ * stored; later requests with the same key get that response back without running again, and requests arriving
+ * while the first is still running wait for its outcome instead of starting their own.
+ * <p>
+ * Only successful responses are stored, so a request that failed may be retried with the same key. A response that
+ * cannot be stored, as when another node stored one for the key first, is still returned to the request and to
+ * those waiting for it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the request unless its key has been seen for this operation.
+     *
+     * @param key       the Idempotency-Key header, or null to run the request unconditionally
+     * @param operation what the key is scoped to, so the same key may be used for different operations
+     * @param request   the request body, compared with the one the key was first used for
+     */
+    public CompletableFuture<ResponseEntity<Void>> execute(String key, String operation, Object request,
+                                                           Supplier<CompletableFuture<ResponseEntity<Void>>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String scopedKey = operation + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        Optional<IdempotentResponse> stored = idempotencyStore.find(scopedKey);
+        if (stored.isPresent()) {
+            return CompletableFuture.completedFuture(replay(stored.get(), fingerprint));
+        }
+
+        CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(scopedKey, execution);
+        if (running != null) {
+            return running.thenApply(response -> replay(response, fingerprint));
+        }
+
+        try {
+            // the previous execution may have finished between the lookup and taking the key
+            stored = idempotencyStore.find(scopedKey);
+            if (stored.isPresent()) {
+                execution.complete(stored.get());
+                return CompletableFuture.completedFuture(replay(stored.get(), fingerprint));
+            }
+
+            return action.get().whenComplete((response, failure) -> {
+                if (failure != null) {
+                    inFlight.remove(scopedKey, execution);
+                    execution.completeExceptionally(failure);
+                    return;
+                }
+
+                IdempotentResponse idempotentResponse = new IdempotentResponse(fingerprint, response.getStatusCodeValue(),
+                        response.getHeaders().getLocation() == null ? null : response.getHeaders().getLocation().toString());
+                try {
+                    idempotencyStore.save(scopedKey, idempotentResponse);
+                } catch (RuntimeException e) {
+                    log.warn("Could not store the response for idempotency key {}", scopedKey, e);
+                } finally {
+                    inFlight.remove(scopedKey, execution);
+                    execution.complete(idempotentResponse);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(scopedKey, execution);
+            execution.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static ResponseEntity<Void> replay(IdempotentResponse response, String fingerprint) {
+        if (!response.getFingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request.");
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatus()).header(HEADER + "-Replayed", "true");
+        if (response.getLocation() != null) {
+            builder.location(URI.create(response.getLocation()));
+        }
+        return builder.build();
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted.", e);
+        }
+    }
+}
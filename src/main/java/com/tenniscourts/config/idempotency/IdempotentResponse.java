@@ -0,0 +1,24 @@
+package com.tenniscourts.config.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * What a key replays: the status and location of the response to the first request, and a fingerprint of that
+ * request's body so that a key reused for a different request is told apart.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class IdempotentResponse implements Serializable {
+
+    private final String fingerprint;
+
+    private final int status;
+
+    private final String location;
+
+}
@@ -0,0 +1,73 @@
+package com.tenniscourts.config.metrics;
+
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.exceptions.EntityNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One timer per operation and outcome, all registered up front so that recording a call is two array reads
+ * and no tag or meter lookup.
+ *
+ * @param <O> the operations being timed
+ */
+public class OperationTimers<O extends Enum<O>> {
+
+    public enum Outcome {
+        SUCCESS,
+        REJECTED,
+        NOT_FOUND,
+        ERROR;
+
+        static Outcome of(RuntimeException e) {
+            if (e instanceof EntityNotFoundException) {
+                return NOT_FOUND;
+            }
+            if (e instanceof IllegalArgumentException || e instanceof BusinessException || e instanceof AlreadyExistsEntityException) {
+                return REJECTED;
+            }
+            return ERROR;
+        }
+    }
+
+    private final Timer[][] timers;
+
+    public OperationTimers(MeterRegistry meterRegistry, String name, Class<O> operations) {
+        O[] operationValues = operations.getEnumConstants();
+        Outcome[] outcomes = Outcome.values();
+
+        timers = new Timer[operationValues.length][outcomes.length];
+        for (O operation : operationValues) {
+            for (Outcome outcome : outcomes) {
+                timers[operation.ordinal()][outcome.ordinal()] = Timer.builder(name)
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public <T> T record(O operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = action.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = Outcome.of(e);
+            throw e;
+        } finally {
+            timers[operation.ordinal()][outcome.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
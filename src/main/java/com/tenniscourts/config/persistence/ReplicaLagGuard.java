@@ -0,0 +1,60 @@
+package com.tenniscourts.config.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tenniscourts.audit.AuditContext;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Keeps a caller's reads on the primary while the replica may still be missing their writes, so a guest sees
+ * their own booking right after booking. Callers are told apart as the {@link AuditContext} does, by user and
+ * address; callers that wrote nothing recently read from the replica.
+ */
+@Component
+public class ReplicaLagGuard {
+
+    static final long MAX_TRACKED_CALLERS = 100_000;
+
+    private final ReplicaProperties properties;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaLagGuard(ReplicaProperties properties, TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getMaxLag())
+                .maximumSize(MAX_TRACKED_CALLERS)
+                .build();
+    }
+
+    /**
+     * Records that the current caller has just committed a write.
+     */
+    public void wrote() {
+        recentWriters.put(callerKey(AuditContext.currentCaller()), Boolean.TRUE);
+    }
+
+    public boolean wroteRecently() {
+        return recentWriters.getIfPresent(callerKey(AuditContext.currentCaller())) != null;
+    }
+
+    /**
+     * Runs the action once the replica has caught up with everything committed so far, e.g. to evict a cached
+     * value that a read from the lagging replica may have filled in again. Does nothing without a replica.
+     */
+    public void afterMaxLag(Runnable action) {
+        if (properties.isEnabled()) {
+            taskScheduler.schedule(action, Instant.now().plus(properties.getMaxLag()));
+        }
+    }
+
+    private static String callerKey(AuditContext.Caller caller) {
+        return caller.getUserId() + "@" + caller.getIpNumber();
+    }
+}
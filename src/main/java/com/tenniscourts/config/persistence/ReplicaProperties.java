@@ -0,0 +1,33 @@
+package com.tenniscourts.config.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.datasource.replica")
+public class ReplicaProperties {
+
+    /**
+     * Whether read-only transactions are sent to the replica; when off, everything uses spring.datasource.
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username = "sa";
+
+    private String password = "";
+
+    /**
+     * Longest the replica is expected to trail the primary. A caller's reads go to the primary for this long
+     * after each of their writes, so they see what they just wrote.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,63 @@
+package com.tenniscourts.config.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool, configured from spring.datasource as before, and
+ * a replica pool from tennis.datasource.replica, behind a {@link ReplicaRoutingDataSource}. Everything that asks
+ * for the DataSource gets the router: schema setup, migrations and writes reach the primary, and
+ * {@code @Transactional(readOnly = true)} work goes to the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tennis.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("tennis.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties replicaProperties) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+    }
+
+    /**
+     * The pools are injected lazily: creating any DataSource bean triggers the schema initializer, which needs this
+     * one, so this one must not wait on the pools.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Lazy @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Lazy @Qualifier("replicaDataSource") DataSource replicaDataSource, ReplicaLagGuard replicaLagGuard) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagGuard);
+        routingDataSource.afterPropertiesSet();
+        // with the defaults given the proxy does not open a connection to find them out
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tenniscourts.config.persistence;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends the connections of read-only transactions to the replica, unless the caller wrote recently, and all
+ * others to the primary. The decision is taken when a connection is first needed, so this has to sit behind a
+ * LazyConnectionDataSourceProxy: the transaction manager asks for its connection before it marks the
+ * transaction read-only.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return replicaLagGuard.wroteRecently() ? Target.PRIMARY : Target.REPLICA;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replicaLagGuard.wrote();
+                }
+            });
+        }
+        return Target.PRIMARY;
+    }
+}
@@ -7,6 +7,8 @@ import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @Configuration
 public class SwaggerConfig {
@@ -14,6 +16,7 @@ public class SwaggerConfig {
     @Bean
     public Docket productApi() {
         return new Docket(DocumentationType.SWAGGER_2)
+                .genericModelSubstitutes(CompletableFuture.class)
                 .select().apis(RequestHandlerSelectors.basePackage("com.tenniscourts"))
                 .paths(PathSelectors.any())
                 .build();
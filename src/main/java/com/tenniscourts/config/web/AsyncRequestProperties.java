@@ -0,0 +1,29 @@
+package com.tenniscourts.config.web;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.web.async")
+public class AsyncRequestProperties {
+
+    /**
+     * Whether reservation and schedule requests run on the request worker pool instead of the servlet container thread.
+     */
+    private boolean enabled;
+
+    /**
+     * Request workers; more than the JDBC connection pool size only adds threads waiting for a connection.
+     */
+    private int poolSize = 10;
+
+    /**
+     * Requests waiting for a worker before new ones are rejected with 503.
+     */
+    private int queueCapacity = 1000;
+
+}
@@ -0,0 +1,79 @@
+package com.tenniscourts.config.web;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The validators a client sent with a GET of one entity, captured on the request thread so that the request can
+ * be answered off it.
+ * <p>
+ * The entity's last update time is both its weak ETag and its Last-Modified date. It is read first, with a query
+ * of that one column; when the client's copy is current the answer is a 304 and the entity is neither loaded nor
+ * mapped nor serialized. If-None-Match takes precedence over If-Modified-Since, as HTTP requires.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ConditionalGet {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final List<String> ifNoneMatch;
+
+    private final long ifModifiedSince;
+
+    public static ConditionalGet of(HttpHeaders requestHeaders) {
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = requestHeaders.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            // an unparseable date is ignored, as if absent
+            ifModifiedSince = -1;
+        }
+        return new ConditionalGet(requestHeaders.getIfNoneMatch(), ifModifiedSince);
+    }
+
+    /**
+     * Answers 304 with the validators when the client's copy is current, or 200 with the validators and the body
+     * from the given supplier. Without a last update time, for instance of an entity that does not exist, the body
+     * is always read and nothing is validated.
+     */
+    public <T> ResponseEntity<T> respond(Optional<LocalDateTime> lastModified, Supplier<T> body) {
+        if (!lastModified.isPresent()) {
+            return ResponseEntity.ok(body.get());
+        }
+
+        long lastModifiedMillis = lastModified.get().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String eTag = eTag(lastModified.get());
+        if (this.isNotModified(eTag, lastModifiedMillis)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).lastModified(lastModifiedMillis).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).lastModified(lastModifiedMillis).body(body.get());
+    }
+
+    private boolean isNotModified(String eTag, long lastModifiedMillis) {
+        if (!ifNoneMatch.isEmpty()) {
+            String opaqueTag = opaqueTag(eTag);
+            return ifNoneMatch.stream().anyMatch(tag -> "*".equals(tag) || opaqueTag.equals(opaqueTag(tag)));
+        }
+
+        // HTTP dates have no fraction of a second
+        return ifModifiedSince >= 0 && lastModifiedMillis / 1000 <= ifModifiedSince / 1000;
+    }
+
+    static String eTag(LocalDateTime lastModified) {
+        return WEAK_PREFIX + "\"" + Long.toString(lastModified.atZone(ZoneId.systemDefault()).toInstant().getEpochSecond(), 36)
+                + "." + Integer.toString(lastModified.getNano(), 36) + "\"";
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tenniscourts.config.web;
+
+import com.tenniscourts.audit.AuditContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the work of a request handler.
+ * <p>
+ * With tennis.web.async.enabled the work is queued on a bounded worker pool and the servlet container thread is
+ * released while the work waits on JDBC, so slow bookings no longer hold the container threads that every other
+ * request needs. A full queue rejects the request with 503 instead of letting it wait. Otherwise the work runs
+ * inline on the container thread, one thread per request as before.
+ */
+@Component
+public class RequestExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+
+    public RequestExecutor(AsyncRequestProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            executor = null;
+            return;
+        }
+
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("request-worker-"), new ThreadPoolExecutor.AbortPolicy());
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, workers, "tennis.request.workers", Collections.emptyList());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> action) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(action.get());
+        }
+
+        AuditContext.Caller caller = AuditContext.currentCaller();
+        return CompletableFuture.supplyAsync(() -> {
+            AuditContext.bind(caller);
+            try {
+                return action.get();
+            } finally {
+                AuditContext.clear();
+            }
+        }, executor);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.tenniscourts.datagenerator;
+
+import com.tenniscourts.pricing.PricingEngine;
+import com.tenniscourts.reservations.ReservationStatus;
+import com.tenniscourts.schedules.CourtAvailabilityIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database with synthetic tennis courts, guests and hourly schedules, and books the schedules with a
+ * mix of ready to play, cancelled and rescheduled reservations, so that production-scale behaviour can be
+ * reproduced locally.
+ * <p>
+ * Rows are written with batched JDBC, bypassing the services: no outbox events are written and no metrics are
+ * recorded. Ids are taken from each entity's sequence, which is moved past them afterwards, so the application
+ * keeps creating rows as usual. The availability index is rebuilt once the rows are written, as they bypass it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tennis.data-generator.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class DataGenerator implements ApplicationRunner {
+
+    static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final int MAX_CANCELLATION_HOURS_BEFORE = 72;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PricingEngine pricingEngine;
+
+    private final DataGeneratorProperties properties;
+
+    private final CourtAvailabilityIndex courtAvailabilityIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        this.generate();
+        courtAvailabilityIndex.rebuild();
+    }
+
+    public void generate() {
+        this.validate();
+
+        long startNanos = System.nanoTime();
+        Random random = new Random(properties.getSeed());
+        LocalDate startDate = properties.getStartDate() == null ? LocalDate.now() : properties.getStartDate();
+
+        long firstTennisCourtId = this.nextId("tennis_court_seq");
+        BatchInsert tennisCourts = new BatchInsert("insert into tennis_court(id, name) values (?, ?)", null);
+        for (int tennisCourt = 0; tennisCourt < properties.getTennisCourts(); tennisCourt++) {
+            tennisCourts.add(firstTennisCourtId + tennisCourt, "Court " + tennisCourt);
+        }
+        tennisCourts.flush();
+
+        long firstGuestId = this.nextId("guest_seq");
+        BatchInsert guests = new BatchInsert("insert into guest(id, name) values (?, ?)", null);
+        for (int guest = 0; guest < properties.getGuests(); guest++) {
+            guests.add(firstGuestId + guest, "Guest " + guest);
+        }
+        guests.flush();
+
+        long firstScheduleId = this.nextId("schedule_seq");
+        long firstReservationId = this.nextId("reservation_seq");
+        BatchInsert schedules = new BatchInsert("insert into schedule(id, tennis_court_id, start_date_time, end_date_time, version) " +
+                "values (?, ?, ?, ?, 0)", null);
+        BatchInsert reservations = new BatchInsert("insert into reservation(id, guest_id, schedule_id, value, refund_value, " +
+                "reservation_status, schedule_start_date_time) values (?, ?, ?, ?, ?, ?, ?)", schedules);
+
+        long scheduleId = firstScheduleId;
+        long reservationId = firstReservationId;
+        for (int tennisCourt = 0; tennisCourt < properties.getTennisCourts(); tennisCourt++) {
+            Long tennisCourtId = firstTennisCourtId + tennisCourt;
+            Deque<Long> movedGuestIds = new ArrayDeque<>();
+
+            for (LocalDate date = startDate; date.isBefore(startDate.plusDays(properties.getDays())); date = date.plusDays(1)) {
+                for (int hour = properties.getOpeningHour(); hour < properties.getClosingHour(); hour++) {
+                    LocalDateTime start = date.atTime(hour, 0);
+                    schedules.add(scheduleId, tennisCourtId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)));
+
+                    BigDecimal deposit = pricingEngine.deposit(tennisCourtId, start);
+                    while (true) {
+                        double draw = random.nextDouble();
+                        if (draw < properties.getReadyShare()) {
+                            reservations.add(reservationId++, firstGuestId + random.nextInt(properties.getGuests()), scheduleId,
+                                    deposit, null, ReservationStatus.READY_TO_PLAY.ordinal(), Timestamp.valueOf(start));
+                            break;
+                        }
+
+                        draw -= properties.getReadyShare();
+                        if (draw < properties.getCancelledShare()) {
+                            BigDecimal refundValue = this.refundValue(random, deposit, start);
+                            reservations.add(reservationId++, firstGuestId + random.nextInt(properties.getGuests()), scheduleId,
+                                    deposit.subtract(refundValue), refundValue, ReservationStatus.CANCELLED.ordinal(), Timestamp.valueOf(start));
+                            continue;
+                        }
+
+                        draw -= properties.getCancelledShare();
+                        if (draw < properties.getRescheduledShare()) {
+                            Long guestId = movedGuestIds.isEmpty() ? firstGuestId + random.nextInt(properties.getGuests()) : movedGuestIds.poll();
+                            BigDecimal refundValue = this.refundValue(random, deposit, start);
+                            reservations.add(reservationId++, guestId, scheduleId,
+                                    deposit.subtract(refundValue), refundValue, ReservationStatus.RESCHEDULED.ordinal(), Timestamp.valueOf(start));
+                            movedGuestIds.add(guestId);
+                            break;
+                        }
+
+                        // a free slot is where the next rescheduled guest lands
+                        if (!movedGuestIds.isEmpty()) {
+                            reservations.add(reservationId++, movedGuestIds.poll(), scheduleId,
+                                    deposit, null, ReservationStatus.READY_TO_PLAY.ordinal(), Timestamp.valueOf(start));
+                        }
+                        break;
+                    }
+                    scheduleId++;
+                }
+            }
+        }
+        reservations.flush();
+
+        this.restart("schedule_seq", scheduleId);
+        this.restart("reservation_seq", reservationId);
+        this.restart("guest_seq", firstGuestId + properties.getGuests());
+        this.restart("tennis_court_seq", firstTennisCourtId + properties.getTennisCourts());
+
+        log.info("Generated {} tennis courts, {} guests, {} schedules and {} reservations in {} ms",
+                properties.getTennisCourts(), properties.getGuests(), scheduleId - firstScheduleId,
+                reservationId - firstReservationId, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void validate() {
+        if (properties.getTennisCourts() < 1 || properties.getGuests() < 1 || properties.getDays() < 1) {
+            throw new IllegalArgumentException("At least one tennis court, guest and day must be generated.");
+        }
+
+        if (properties.getOpeningHour() < 0 || properties.getClosingHour() > 24 || properties.getOpeningHour() >= properties.getClosingHour()) {
+            throw new IllegalArgumentException("Opening hour must be before closing hour.");
+        }
+
+        if (properties.getReadyShare() < 0 || properties.getCancelledShare() < 0 || properties.getRescheduledShare() < 0
+                || properties.getReadyShare() + properties.getCancelledShare() + properties.getRescheduledShare() > 1) {
+            throw new IllegalArgumentException("Reservation shares must be positive and add up to at most 1.");
+        }
+    }
+
+    /**
+     * Refund of a reservation given up a random number of hours before its start.
+     */
+    private BigDecimal refundValue(Random random, BigDecimal deposit, LocalDateTime start) {
+        return pricingEngine.refundValue(deposit, start, start.minusHours(random.nextInt(MAX_CANCELLATION_HOURS_BEFORE)));
+    }
+
+    /**
+     * First id of a block taken from the sequence; Hibernate never hands out an id fetched from it by someone else.
+     */
+    private long nextId(String sequence) {
+        return jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+    }
+
+    private void restart(String sequence, long nextId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + nextId);
+    }
+
+    /**
+     * Rows of one insert statement, sent in JDBC batches; rows of the table it depends on are sent first.
+     */
+    private class BatchInsert {
+
+        private final String sql;
+
+        private final BatchInsert dependency;
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        BatchInsert(String sql, BatchInsert dependency) {
+            this.sql = sql;
+            this.dependency = dependency;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == INSERT_BATCH_SIZE) {
+                this.flush();
+            }
+        }
+
+        void flush() {
+            if (dependency != null) {
+                dependency.flush();
+            }
+
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
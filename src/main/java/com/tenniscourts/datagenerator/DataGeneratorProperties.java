@@ -0,0 +1,59 @@
+package com.tenniscourts.datagenerator;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.data-generator")
+public class DataGeneratorProperties {
+
+    /**
+     * Whether synthetic data is generated on startup, into whatever database spring.datasource.url points to.
+     */
+    private boolean enabled = false;
+
+    private int tennisCourts = 20;
+
+    private int guests = 10_000;
+
+    /**
+     * First day of hourly schedules; today when not set.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    private int days = 365;
+
+    private int openingHour = 8;
+
+    private int closingHour = 22;
+
+    /**
+     * Share of slots booked and still ready to play.
+     */
+    private double readyShare = 0.45;
+
+    /**
+     * Share of slots booked and then cancelled; a cancelled slot may be booked again.
+     */
+    private double cancelledShare = 0.1;
+
+    /**
+     * Share of slots booked and then rescheduled, the guest moving to a later slot of the same court; the moved
+     * reservation may be rescheduled again, which makes chains.
+     */
+    private double rescheduledShare = 0.05;
+
+    /**
+     * Seed of the random choices, so that two runs with the same settings generate the same data.
+     */
+    private long seed = 42;
+
+}
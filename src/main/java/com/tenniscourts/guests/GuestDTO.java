@@ -0,0 +1,22 @@
+package com.tenniscourts.guests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestDTO {
+
+    private Long id;
+
+    private String name;
+
+}
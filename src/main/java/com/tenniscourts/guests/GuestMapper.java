@@ -0,0 +1,8 @@
+package com.tenniscourts.guests;
+
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface GuestMapper {
+    GuestDTO map(Guest source);
+}
@@ -0,0 +1,28 @@
+package com.tenniscourts.guests;
+
+import com.tenniscourts.config.cache.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Writes evict the guest from the guests cache read by {@link GuestService#findGuestById}, once the transaction
+ * commits.
+ */
+public interface GuestRepository extends JpaRepository<Guest, Long> {
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.GUESTS, key = "#p0.id", condition = "#p0.id != null")
+    <S extends Guest> S save(S guest);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.GUESTS, key = "#p0.id", condition = "#p0.id != null")
+    <S extends Guest> S saveAndFlush(S guest);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.GUESTS)
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.GUESTS, key = "#p0.id")
+    void delete(Guest guest);
+}
@@ -0,0 +1,30 @@
+package com.tenniscourts.guests;
+
+import com.tenniscourts.config.cache.CacheConfig;
+import com.tenniscourts.exceptions.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@AllArgsConstructor
+public class GuestService {
+
+    private final GuestRepository guestRepository;
+
+    private final GuestMapper guestMapper;
+
+    /**
+     * Read through the guests cache, which holds DTOs rather than entities so that no caller shares a detached
+     * guest.
+     */
+    @Cacheable(cacheNames = CacheConfig.GUESTS)
+    @Transactional(readOnly = true)
+    public GuestDTO findGuestById(Long guestId) {
+        return guestRepository.findById(guestId).map(guestMapper::map).orElseThrow(() -> {
+            throw new EntityNotFoundException("Guest not found.");
+        });
+    }
+
+}
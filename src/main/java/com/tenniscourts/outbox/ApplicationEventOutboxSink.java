@@ -0,0 +1,27 @@
+package com.tenniscourts.outbox;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands relayed messages to in-process {@code @EventListener}s of {@link OutboxMessage}, on the relay thread.
+ */
+@Component
+@AllArgsConstructor
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    static final String NAME = "application-events";
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) {
+        applicationEventPublisher.publishEvent(message);
+    }
+}
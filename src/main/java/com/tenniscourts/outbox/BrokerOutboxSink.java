@@ -0,0 +1,39 @@
+package com.tenniscourts.outbox;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a message broker: relayed messages are queued in memory, up to tennis.outbox.broker-capacity,
+ * for consumers to take. A full queue refuses the message, which then stays pending in the outbox.
+ */
+@Component
+public class BrokerOutboxSink implements OutboxSink {
+
+    static final String NAME = "broker";
+
+    private final BlockingQueue<OutboxMessage> queue;
+
+    public BrokerOutboxSink(OutboxProperties properties) {
+        queue = new LinkedBlockingQueue<>(properties.getBrokerCapacity());
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) {
+        if (!queue.offer(message)) {
+            throw new IllegalStateException("Broker queue is full.");
+        }
+    }
+
+    public OutboxMessage take(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+}
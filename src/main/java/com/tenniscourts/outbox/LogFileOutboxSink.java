@@ -0,0 +1,37 @@
+package com.tenniscourts.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+/**
+ * Appends every relayed message as one JSON line to the file named by tennis.outbox.log-file.
+ */
+@Component
+@AllArgsConstructor
+public class LogFileOutboxSink implements OutboxSink {
+
+    static final String NAME = "log-file";
+
+    private final OutboxProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void deliver(OutboxMessage message) throws IOException {
+        Files.write(Paths.get(properties.getLogFile()), Collections.singletonList(objectMapper.writeValueAsString(message)),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
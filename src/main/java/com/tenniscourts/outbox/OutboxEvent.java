@@ -0,0 +1,73 @@
+package com.tenniscourts.outbox;
+
+import com.tenniscourts.config.persistence.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_outbox_event_published_at", columnList = "publishedAt, id"),
+        @Index(name = "uk_outbox_event_aggregate_version", columnList = "aggregateType, aggregateId, aggregateVersion", unique = true)})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(exclude = "payload")
+public class OutboxEvent extends BaseEntity<Long> {
+
+    @Column
+    @NotNull
+    private String aggregateType;
+
+    @Column
+    @NotNull
+    private Long aggregateId;
+
+    /**
+     * Position of the event among the events of its aggregate, which orders them as their transactions committed.
+     */
+    @Column
+    @NotNull
+    private Long aggregateVersion;
+
+    @Column
+    @NotNull
+    private String eventType;
+
+    @Lob
+    @Column
+    @NotNull
+    private String payload;
+
+    @Column
+    @NotNull
+    private LocalDateTime occurredAt;
+
+    @Column
+    private LocalDateTime publishedAt;
+
+    @Column
+    private int attempts;
+
+    @Column
+    private LocalDateTime nextAttemptAt;
+
+    @Column
+    private LocalDateTime parkedAt;
+
+}
@@ -0,0 +1,42 @@
+package com.tenniscourts.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest events due for delivery that come first among the pending events of their aggregate, locked so that
+     * relays on other nodes wait instead of delivering them twice. An aggregate whose first event waits for a retry
+     * is left out as a whole, so it neither reorders its events nor takes up the batch; parked events are left out
+     * and no longer hold back their aggregate.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.publishedAt is null and e.parkedAt is null " +
+            "and (e.nextAttemptAt is null or e.nextAttemptAt <= :now) " +
+            "and not exists (select p from OutboxEvent p where p.aggregateType = e.aggregateType and p.aggregateId = e.aggregateId " +
+            "and p.aggregateVersion < e.aggregateVersion and p.publishedAt is null and p.parkedAt is null) " +
+            "order by e.id")
+    List<OutboxEvent> findPendingForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("select coalesce(max(e.aggregateVersion), 0) from OutboxEvent e where e.aggregateType = :aggregateType and e.aggregateId = :aggregateId")
+    long findLastAggregateVersion(@Param("aggregateType") String aggregateType, @Param("aggregateId") Long aggregateId);
+
+    long countByPublishedAtIsNull();
+
+    long countByPublishedAtIsNullAndParkedAtIsNull();
+
+    long countByParkedAtIsNotNull();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :publishedBefore")
+    int deleteByPublishedAtBefore(@Param("publishedBefore") LocalDateTime publishedBefore);
+}
@@ -0,0 +1,35 @@
+package com.tenniscourts.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to the sinks. The payload is the JSON document written with the state change.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OutboxMessage {
+
+    private final Long id;
+
+    private final String aggregateType;
+
+    private final Long aggregateId;
+
+    private final Long aggregateVersion;
+
+    private final String eventType;
+
+    private final String payload;
+
+    private final LocalDateTime occurredAt;
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getAggregateVersion(), event.getEventType(),
+                event.getPayload(), event.getOccurredAt());
+    }
+}
@@ -0,0 +1,65 @@
+package com.tenniscourts.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether this node relays pending outbox events; events are written either way.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Pending events read and delivered per poll.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Pause between two polls of the outbox.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Failed deliveries after which an event is parked: the relay leaves it out, and it no longer holds back the
+     * later events of its aggregate, until its parked_at is cleared by hand.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Longest wait before a failed event is retried; the wait starts at the poll interval and doubles per attempt.
+     */
+    private Duration maxRetryDelay = Duration.ofMinutes(5);
+
+    /**
+     * How long delivered events are kept before being purged.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Enabled sinks, by name and in delivery order: application-events, log-file, broker.
+     */
+    private List<String> sinks = new ArrayList<>(Collections.singletonList(ApplicationEventOutboxSink.NAME));
+
+    /**
+     * File the log-file sink appends one JSON line per event to.
+     */
+    private String logFile = "outbox-events.log";
+
+    /**
+     * Messages the broker sink holds before it refuses new ones.
+     */
+    private int brokerCapacity = 10_000;
+
+}
@@ -0,0 +1,113 @@
+package com.tenniscourts.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Drains pending outbox events to the enabled sinks, in their configured order, in batches, oldest first.
+ * <p>
+ * Delivery is at least once: an event is marked published only after every sink accepted it, in the same
+ * transaction that locked it. Each batch takes only the first pending event of every aggregate, by aggregate
+ * version, so each aggregate's events are delivered in the order they committed. When a sink fails, the event is
+ * retried after a delay that doubles per attempt, and its aggregate is left out of the batches until then while
+ * other aggregates carry on. After tennis.outbox.max-attempts the event is parked and the aggregate moves on.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final List<OutboxSink> sinks;
+
+    private final Counter delivered;
+
+    private final Counter failed;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxProperties properties,
+                       TransactionTemplate transactionTemplate, List<OutboxSink> sinks, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = properties.getSinks().stream()
+                .map(name -> sinks.stream().filter(sink -> sink.name().equals(name)).findFirst().orElseThrow(() -> {
+                    throw new IllegalStateException("Unknown outbox sink: " + name);
+                }))
+                .collect(Collectors.toList());
+
+        delivered = Counter.builder("tennis.outbox.delivered").register(meterRegistry);
+        failed = Counter.builder("tennis.outbox.failed").register(meterRegistry);
+        Gauge.builder("tennis.outbox.pending", outboxEventRepository, OutboxEventRepository::countByPublishedAtIsNullAndParkedAtIsNull).register(meterRegistry);
+        Gauge.builder("tennis.outbox.parked", outboxEventRepository, OutboxEventRepository::countByParkedAtIsNotNull).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "#{@outboxProperties.pollInterval.toMillis()}")
+    public void poll() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+
+        // a batch holds one event per aggregate, so the next events of the delivered aggregates need another batch
+        int delivered;
+        do {
+            delivered = transactionTemplate.execute(status -> this.relayBatch(LocalDateTime.now()));
+        } while (delivered > 0);
+    }
+
+    /**
+     * Relays one batch of the events due at the given time and returns how many of them were delivered.
+     */
+    int relayBatch(LocalDateTime now) {
+        List<OutboxEvent> events = outboxEventRepository.findPendingForUpdate(now, PageRequest.of(0, properties.getBatchSize()));
+
+        int deliveredEvents = 0;
+        for (OutboxEvent event : events) {
+            try {
+                OutboxMessage message = OutboxMessage.of(event);
+                for (OutboxSink sink : sinks) {
+                    sink.deliver(message);
+                }
+                event.setPublishedAt(now);
+                delivered.increment();
+                deliveredEvents++;
+            } catch (Exception e) {
+                event.setAttempts(event.getAttempts() + 1);
+                failed.increment();
+                if (event.getAttempts() >= properties.getMaxAttempts()) {
+                    log.error("Delivery of outbox event {} failed {} times, parking it", event.getId(), event.getAttempts(), e);
+                    event.setParkedAt(now);
+                } else {
+                    Duration retryDelay = this.retryDelay(event.getAttempts());
+                    log.warn("Delivery of outbox event {} failed, retrying in {}", event.getId(), retryDelay, e);
+                    event.setNextAttemptAt(now.plus(retryDelay));
+                }
+            }
+        }
+        return deliveredEvents;
+    }
+
+    private Duration retryDelay(int attempts) {
+        Duration retryDelay = properties.getPollInterval().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return retryDelay.compareTo(properties.getMaxRetryDelay()) < 0 ? retryDelay : properties.getMaxRetryDelay();
+    }
+
+    @Scheduled(fixedDelayString = "PT1H")
+    public void purgeDelivered() {
+        transactionTemplate.execute(status -> outboxEventRepository.deleteByPublishedAtBefore(LocalDateTime.now().minus(properties.getRetention())));
+    }
+}
@@ -0,0 +1,40 @@
+package com.tenniscourts.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@AllArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records an event in the transaction of the state change it describes, so that it is relayed if and only if
+     * the change commits. The event takes the next version of its aggregate; as the versions of an aggregate are
+     * unique, a concurrent change of the same aggregate fails on commit instead of interleaving its event.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .aggregateVersion(outboxEventRepository.findLastAggregateVersion(aggregateType, aggregateId) + 1)
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .occurredAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload cannot be serialized.", e);
+        }
+    }
+}
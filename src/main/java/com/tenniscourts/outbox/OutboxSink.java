@@ -0,0 +1,19 @@
+package com.tenniscourts.outbox;
+
+/**
+ * Destination of relayed outbox events. A message may be delivered more than once, after a failure of this or
+ * another sink, so sinks and their consumers must tolerate duplicates; messages of one aggregate arrive in the
+ * order their changes committed, by aggregate version, with a gap where an event was parked.
+ */
+public interface OutboxSink {
+
+    /**
+     * The name listed in tennis.outbox.sinks to enable this sink.
+     */
+    String name();
+
+    /**
+     * Delivers the message or throws, in which case it is retried on a later poll.
+     */
+    void deliver(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,109 @@
+package com.tenniscourts.pricing;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link PricingRules} compiled into arrays: a deposit per hour of the week for every court with a multiplier and
+ * one shared by all other courts, and a refund share per hour of notice. Pricing is then a bucket computation
+ * and an array read. Instances are immutable and safe to share between threads.
+ */
+final class PriceTable {
+
+    static final int HOURS_PER_WEEK = 7 * 24;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final PricingRules rules;
+
+    private final BigDecimal[] defaultDeposits;
+
+    private final Map<Long, BigDecimal[]> courtDeposits;
+
+    /**
+     * Indexed by whole hours of notice; any longer notice gets the last entry.
+     */
+    private final BigDecimal[] refundShares;
+
+    private PriceTable(PricingRules rules, BigDecimal[] defaultDeposits, Map<Long, BigDecimal[]> courtDeposits, BigDecimal[] refundShares) {
+        this.rules = rules;
+        this.defaultDeposits = defaultDeposits;
+        this.courtDeposits = courtDeposits;
+        this.refundShares = refundShares;
+    }
+
+    static PriceTable compile(PricingRules rules) {
+        if (rules.getPeakEndHour() <= rules.getPeakStartHour()) {
+            throw new IllegalArgumentException("Peak hours must end after they start.");
+        }
+
+        BigDecimal[] defaultDeposits = new BigDecimal[HOURS_PER_WEEK];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (int hour = 0; hour < 24; hour++) {
+                boolean peak = rules.getPeakDays().contains(day) && hour >= rules.getPeakStartHour() && hour < rules.getPeakEndHour();
+                defaultDeposits[bucket(day, hour)] = peak ? rules.getPeakDeposit() : rules.getOffPeakDeposit();
+            }
+        }
+
+        Map<Long, BigDecimal[]> courtDeposits = new HashMap<>();
+        rules.getCourtMultipliers().forEach((tennisCourtId, multiplier) -> {
+            if (multiplier == null || multiplier.signum() < 0) {
+                throw new IllegalArgumentException("Court multipliers must not be negative.");
+            }
+
+            BigDecimal[] deposits = new BigDecimal[HOURS_PER_WEEK];
+            for (int bucket = 0; bucket < HOURS_PER_WEEK; bucket++) {
+                deposits[bucket] = defaultDeposits[bucket].multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+            }
+            courtDeposits.put(tennisCourtId, deposits);
+        });
+
+        int longestNotice = rules.getRefundTiers().stream().mapToInt(RefundTier::getHoursBefore).max().orElse(0);
+        BigDecimal[] refundShares = new BigDecimal[longestNotice + 1];
+        for (int hours = 0; hours <= longestNotice; hours++) {
+            int notice = hours;
+            int percent = rules.getRefundTiers().stream()
+                    .filter(tier -> tier.getHoursBefore() <= notice)
+                    .max((a, b) -> Integer.compare(a.getHoursBefore(), b.getHoursBefore()))
+                    .map(RefundTier::getRefundPercent)
+                    .orElse(0);
+            refundShares[hours] = BigDecimal.valueOf(percent).movePointLeft(2);
+        }
+
+        return new PriceTable(rules, defaultDeposits, Collections.unmodifiableMap(courtDeposits), refundShares);
+    }
+
+    BigDecimal deposit(Long tennisCourtId, LocalDateTime startDateTime) {
+        BigDecimal[] deposits = courtDeposits.get(tennisCourtId);
+        return (deposits == null ? defaultDeposits : deposits)[bucket(startDateTime.getDayOfWeek(), startDateTime.getHour())];
+    }
+
+    /**
+     * A full refund is the value itself and no refund is zero; partial refunds are rounded to cents.
+     */
+    BigDecimal refundValue(BigDecimal value, long hoursOfNotice) {
+        if (hoursOfNotice < 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal share = refundShares[(int) Math.min(hoursOfNotice, refundShares.length - 1)];
+        if (share.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (share.compareTo(BigDecimal.ONE) == 0) {
+            return value;
+        }
+        return value.multiply(share).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static int bucket(DayOfWeek day, int hour) {
+        return (day.getValue() - 1) * 24 + hour;
+    }
+}
@@ -0,0 +1,18 @@
+package com.tenniscourts.pricing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PricingConfig {
+
+    /**
+     * The rules in effect at startup, bound from tennis.pricing.*.
+     */
+    @Bean
+    @ConfigurationProperties("tennis.pricing")
+    public PricingRules pricingRules() {
+        return new PricingRules();
+    }
+}
@@ -0,0 +1,33 @@
+package com.tenniscourts.pricing;
+
+import io.swagger.annotations.ApiOperation;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/pricing/rules")
+@AllArgsConstructor
+public class PricingController {
+
+    private final PricingEngine pricingEngine;
+
+    @ApiOperation("Shows the deposit and refund rules in effect")
+    @GetMapping
+    public ResponseEntity<PricingRules> findPricingRules() {
+        return ResponseEntity.ok(pricingEngine.currentRules());
+    }
+
+    @ApiOperation("Replaces the deposit and refund rules for bookings and cancellations from now on")
+    @PutMapping
+    public ResponseEntity<PricingRules> updatePricingRules(@Valid @RequestBody PricingRules pricingRules) {
+        pricingEngine.updateRules(pricingRules);
+        return ResponseEntity.ok(pricingEngine.currentRules());
+    }
+}
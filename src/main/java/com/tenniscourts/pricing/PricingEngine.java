@@ -0,0 +1,40 @@
+package com.tenniscourts.pricing;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Prices bookings and refunds from the current {@link PriceTable}. New rules are compiled off to the side and
+ * swapped in with a single volatile write, so every quote is computed against one complete set of rules.
+ */
+@Component
+public class PricingEngine {
+
+    private volatile PriceTable priceTable;
+
+    public PricingEngine(PricingRules pricingRules) {
+        priceTable = PriceTable.compile(pricingRules);
+    }
+
+    public BigDecimal deposit(Long tennisCourtId, LocalDateTime startDateTime) {
+        return priceTable.deposit(tennisCourtId, startDateTime);
+    }
+
+    public BigDecimal refundValue(BigDecimal value, LocalDateTime startDateTime, LocalDateTime now) {
+        return priceTable.refundValue(value, ChronoUnit.HOURS.between(now, startDateTime));
+    }
+
+    public PricingRules currentRules() {
+        return priceTable.getRules();
+    }
+
+    /**
+     * Applies to quotes from now on; reservations already booked keep their value.
+     */
+    public void updateRules(PricingRules pricingRules) {
+        priceTable = PriceTable.compile(pricingRules);
+    }
+}
@@ -0,0 +1,74 @@
+package com.tenniscourts.pricing;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What a booking costs and how much of it a cancellation refunds. The defaults charge a flat deposit of 10 and
+ * refund it in full up to 24 hours ahead, nothing later.
+ */
+@Data
+@NoArgsConstructor
+public class PricingRules {
+
+    static final int MAX_REFUND_HOURS = 24 * 365;
+
+    /**
+     * Deposit charged for a slot starting outside the peak hours.
+     */
+    @NotNull
+    @DecimalMin("0")
+    private BigDecimal offPeakDeposit = BigDecimal.TEN;
+
+    /**
+     * Deposit charged for a slot starting within the peak hours.
+     */
+    @NotNull
+    @DecimalMin("0")
+    private BigDecimal peakDeposit = BigDecimal.TEN;
+
+    /**
+     * First hour of the day, 0-23, that is peak.
+     */
+    @Min(0)
+    @Max(23)
+    private int peakStartHour = 18;
+
+    /**
+     * First hour of the day, 1-24, that is off-peak again.
+     */
+    @Min(1)
+    @Max(24)
+    private int peakEndHour = 22;
+
+    @NotNull
+    private Set<DayOfWeek> peakDays = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+    /**
+     * Deposit multiplier per tennis court id; courts not listed pay the plain deposit.
+     */
+    @NotNull
+    private Map<Long, BigDecimal> courtMultipliers = new HashMap<>();
+
+    /**
+     * Refund shares by notice given; a cancellation gets the tier with the largest notice it satisfies, or nothing.
+     */
+    @NotNull
+    @Valid
+    private List<RefundTier> refundTiers = new ArrayList<>(Collections.singletonList(new RefundTier(24, 100)));
+}
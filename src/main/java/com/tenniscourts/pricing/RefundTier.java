@@ -0,0 +1,25 @@
+package com.tenniscourts.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * Share of the reservation value refunded when cancelling at least {@code hoursBefore} hours before the slot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundTier {
+
+    @Min(0)
+    @Max(PricingRules.MAX_REFUND_HOURS)
+    private int hoursBefore;
+
+    @Min(0)
+    @Max(100)
+    private int refundPercent;
+}
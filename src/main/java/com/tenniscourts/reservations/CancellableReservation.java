@@ -0,0 +1,29 @@
+package com.tenniscourts.reservations;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a reservation needed to cancel and refund it without loading the entity.
+ */
+@Getter
+@AllArgsConstructor
+public class CancellableReservation {
+
+    private final Long id;
+
+    private final ReservationStatus reservationStatus;
+
+    private final BigDecimal value;
+
+    private final Long scheduleId;
+
+    private final LocalDateTime startDateTime;
+
+    private final Long tennisCourtId;
+
+    private final Long guestId;
+}
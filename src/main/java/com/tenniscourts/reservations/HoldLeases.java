@@ -0,0 +1,95 @@
+package com.tenniscourts.reservations;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases of the held reservations, in a single delay queue ordered by expiry.
+ * <p>
+ * A lease is a reservation id and a deadline, so memory grows with the holds taken within one hold duration and
+ * is capped by tennis.reservations.holds.max-leases. No thread waits on a lease: the {@link HoldReaper} drains
+ * whatever has expired on every sweep, in batches. Confirming a hold leaves its lease in the queue, as removing
+ * it would cost a scan; the expiry then finds the reservation no longer held and skips it.
+ */
+@Component
+public class HoldLeases {
+
+    private final ReservationRepository reservationRepository;
+
+    private final int maxLeases;
+
+    private final DelayQueue<Lease> leases = new DelayQueue<>();
+
+    public HoldLeases(ReservationRepository reservationRepository, HoldProperties properties, MeterRegistry meterRegistry) {
+        this.reservationRepository = reservationRepository;
+        this.maxLeases = properties.getMaxLeases();
+        Gauge.builder("tennis.reservations.holds.leases", leases, DelayQueue::size)
+                .description("Hold leases pending expiry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes the leases of the holds left by the previous run back, expired ones included, which the next sweep
+     * releases. Read-write, so that the holds are read from the primary even when read-only work goes to a replica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        leases.clear();
+        reservationRepository.findByReservationStatus(ReservationStatus.HELD)
+                .forEach(reservation -> this.add(reservation.getId(), reservation.getHoldExpiresAt()));
+    }
+
+    public boolean isFull() {
+        return leases.size() >= maxLeases;
+    }
+
+    public void add(Long reservationId, LocalDateTime expiresAt) {
+        leases.add(new Lease(reservationId, System.nanoTime() + Duration.between(LocalDateTime.now(), expiresAt).toNanos()));
+    }
+
+    /**
+     * Removes and returns the ids of up to the given number of reservations whose lease has expired.
+     */
+    public List<Long> drainExpired(int maxReservations) {
+        List<Lease> expired = new ArrayList<>();
+        leases.drainTo(expired, maxReservations);
+
+        List<Long> reservationIds = new ArrayList<>(expired.size());
+        expired.forEach(lease -> reservationIds.add(lease.getReservationId()));
+        return reservationIds;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class Lease implements Delayed {
+
+        private final Long reservationId;
+
+        private final long expiresAtNanos;
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtNanos, ((Lease) other).expiresAtNanos);
+        }
+    }
+}
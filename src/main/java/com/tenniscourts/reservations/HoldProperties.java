@@ -0,0 +1,36 @@
+package com.tenniscourts.reservations;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.reservations.holds")
+public class HoldProperties {
+
+    /**
+     * How long a held slot stays taken before it is released unless confirmed.
+     */
+    private Duration duration = Duration.ofMinutes(10);
+
+    /**
+     * Pause between two sweeps of the expired holds; a hold is released at most this late.
+     */
+    private Duration sweepInterval = Duration.ofSeconds(1);
+
+    /**
+     * Expired holds released per transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Leases pending expiry before new holds are refused, which bounds the memory the leases take.
+     */
+    private int maxLeases = 100_000;
+
+}
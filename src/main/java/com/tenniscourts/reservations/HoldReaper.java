@@ -0,0 +1,40 @@
+package com.tenniscourts.reservations;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Releases the expired holds on a fixed delay, a batch per transaction, so one thread serves every hold.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class HoldReaper {
+
+    private final HoldLeases holdLeases;
+
+    private final ReservationService reservationService;
+
+    private final HoldProperties properties;
+
+    @Scheduled(fixedDelayString = "#{@holdProperties.sweepInterval.toMillis()}")
+    public void sweep() {
+        for (List<Long> reservationIds = holdLeases.drainExpired(properties.getBatchSize());
+             !reservationIds.isEmpty();
+             reservationIds = holdLeases.drainExpired(properties.getBatchSize())) {
+            try {
+                reservationService.expireHolds(reservationIds);
+            } catch (RuntimeException e) {
+                log.warn("Could not release {} expired holds, retrying on the next sweep", reservationIds.size(), e);
+                LocalDateTime now = LocalDateTime.now();
+                reservationIds.forEach(reservationId -> holdLeases.add(reservationId, now));
+                return;
+            }
+        }
+    }
+}
@@ -11,15 +11,19 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
-import javax.persistence.OneToOne;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 
 @Entity
-@Table
+@Table(indexes = {
+        @Index(name = "idx_reservation_guest_status_start", columnList = "guest_id, reservationStatus, scheduleStartDateTime, id"),
+        @Index(name = "idx_reservation_schedule_status", columnList = "schedule_id, reservationStatus")})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -28,10 +32,10 @@ import java.math.BigDecimal;
 @Builder
 public class Reservation extends BaseEntity<Long> {
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Guest guest;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @NotNull
     private Schedule schedule;
 
@@ -42,4 +46,16 @@ public class Reservation extends BaseEntity<Long> {
     private ReservationStatus reservationStatus = ReservationStatus.READY_TO_PLAY;
 
     private BigDecimal refundValue;
+
+    /**
+     * Copy of the schedule start, which never changes, so that a guest's reservations are read in start order
+     * from the guest index alone.
+     */
+    @NotNull
+    private LocalDateTime scheduleStartDateTime;
+
+    /**
+     * When a held reservation is released unless confirmed first; cleared on confirmation, kept on expiry.
+     */
+    private LocalDateTime holdExpiresAt;
 }
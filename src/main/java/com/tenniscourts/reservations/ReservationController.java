@@ -1,27 +1,119 @@
 package com.tenniscourts.reservations;
 
 import com.tenniscourts.config.BaseRestController;
+import com.tenniscourts.config.idempotency.IdempotentRequests;
+import com.tenniscourts.config.web.ConditionalGet;
+import com.tenniscourts.config.web.RequestExecutor;
+import io.swagger.annotations.ApiOperation;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.validation.Valid;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/reservations")
 @AllArgsConstructor
 public class ReservationController extends BaseRestController {
 
     private final ReservationService reservationService;
 
-    public ResponseEntity<Void> bookReservation(CreateReservationRequestDTO createReservationRequestDTO) {
-        return ResponseEntity.created(locationByEntity(reservationService.bookReservation(createReservationRequestDTO).getId())).build();
+    private final RequestExecutor requestExecutor;
+
+    private final IdempotentRequests idempotentRequests;
+
+    private final ReservationExporter reservationExporter;
+
+    @ApiOperation("Books a schedule slot for a guest; retries carrying the same Idempotency-Key get the original response")
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Void>> bookReservation(@RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+                                                                   @Valid @RequestBody CreateReservationRequestDTO createReservationRequestDTO) {
+        UriComponentsBuilder currentRequest = ServletUriComponentsBuilder.fromCurrentRequest();
+        return idempotentRequests.execute(idempotencyKey, "bookReservation", createReservationRequestDTO, () ->
+                requestExecutor.submit(() -> ResponseEntity.created(locationByEntity(currentRequest,
+                        reservationService.bookReservation(createReservationRequestDTO).getId())).build()));
+    }
+
+    @ApiOperation("Holds a schedule slot for a guest for a few minutes, until the reservation is confirmed or the hold expires")
+    @PostMapping("/holds")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> holdReservation(@Valid @RequestBody CreateReservationRequestDTO createReservationRequestDTO) {
+        UriComponentsBuilder reservations = ServletUriComponentsBuilder.fromCurrentContextPath().path("/reservations");
+        return requestExecutor.submit(() -> {
+            ReservationDTO reservation = reservationService.holdReservation(createReservationRequestDTO);
+            return ResponseEntity.created(locationByEntity(reservations, reservation.getId())).body(reservation);
+        });
+    }
+
+    @ApiOperation("Finds one page of a guest's reservations, optionally in one status, newest first")
+    @GetMapping
+    public CompletableFuture<ResponseEntity<ReservationPageDTO>> findReservationsByGuest(@RequestParam Long guestId,
+                                                                                        @RequestParam(required = false) ReservationStatus status,
+                                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeStartDateTime,
+                                                                                        @RequestParam(required = false) Long beforeId,
+                                                                                        @RequestParam(defaultValue = "100") int size) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(reservationService.findReservationsByGuest(guestId, status, beforeStartDateTime, beforeId, size)));
+    }
+
+    @ApiOperation("Finds one page of the ready to play reservations of a tennis court that have not started yet, soonest first")
+    @GetMapping("/upcoming")
+    public CompletableFuture<ResponseEntity<ReservationPageDTO>> findUpcomingReservationsByTennisCourt(@RequestParam Long tennisCourtId,
+                                                                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStartDateTime,
+                                                                                                      @RequestParam(required = false) Long afterScheduleId,
+                                                                                                      @RequestParam(defaultValue = "100") int size) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(reservationService.findUpcomingReservationsByTennisCourt(tennisCourtId, afterStartDateTime, afterScheduleId, size)));
+    }
+
+    @ApiOperation("Exports the reservations of the schedules starting on the days from the start date to the end date, both included, as a gzip-compressed CSV file")
+    @GetMapping(value = "/export", produces = "application/gzip")
+    public ResponseEntity<StreamingResponseBody> exportReservations(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        ContentDisposition attachment = ContentDisposition.builder("attachment")
+                .filename("reservations-" + startDate + "-" + endDate + ".csv.gz").build();
+        return ResponseEntity.ok().contentType(ReservationExporter.MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(outputStream -> reservationExporter.export(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), outputStream));
+    }
+
+    @ApiOperation("Finds a reservation by id; answers 304 when the If-None-Match or If-Modified-Since copy is current")
+    @GetMapping("/{reservationId}")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> findReservation(@PathVariable Long reservationId, @RequestHeader HttpHeaders requestHeaders) {
+        ConditionalGet conditionalGet = ConditionalGet.of(requestHeaders);
+        return requestExecutor.submit(() -> conditionalGet.respond(reservationService.findReservationLastModified(reservationId),
+                () -> reservationService.findReservation(reservationId)));
     }
 
-    public ResponseEntity<ReservationDTO> findReservation(Long reservationId) {
-        return ResponseEntity.ok(reservationService.findReservation(reservationId));
+    @ApiOperation("Confirms a held reservation, making it ready to play")
+    @PutMapping("/{reservationId}/confirm")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> confirmReservation(@PathVariable Long reservationId) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(reservationService.confirmReservation(reservationId)));
     }
 
-    public ResponseEntity<ReservationDTO> cancelReservation(Long reservationId) {
-        return ResponseEntity.ok(reservationService.cancelReservation(reservationId));
+    @ApiOperation("Cancels a reservation, refunding the deposit when cancelled at least 24 hours ahead")
+    @PutMapping("/{reservationId}/cancel")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> cancelReservation(@PathVariable Long reservationId) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(reservationService.cancelReservation(reservationId)));
     }
 
-    public ResponseEntity<ReservationDTO> rescheduleReservation(Long reservationId, Long scheduleId) {
-        return ResponseEntity.ok(reservationService.rescheduleReservation(reservationId, scheduleId));
+    @ApiOperation("Moves a reservation to another schedule slot")
+    @PutMapping("/{reservationId}/reschedule/{scheduleId}")
+    public CompletableFuture<ResponseEntity<ReservationDTO>> rescheduleReservation(@PathVariable Long reservationId, @PathVariable Long scheduleId) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(reservationService.rescheduleReservation(reservationId, scheduleId)));
     }
 }
@@ -10,6 +10,7 @@ import lombok.Setter;
 
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -31,6 +32,8 @@ public class ReservationDTO {
 
     private BigDecimal value;
 
+    private LocalDateTime holdExpiresAt;
+
     @NotNull
     private Long scheduledId;
 
@@ -0,0 +1,112 @@
+package com.tenniscourts.reservations;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of reservations for reporting, as gzip-compressed CSV with a header row.
+ * <p>
+ * Rows are streamed from the database to the output one at a time through a fixed-size buffer, so memory use
+ * is the same for a day or for a year of reservations. Gzip runs at its fastest level: the columns are short
+ * and repetitive and compress about as well as at the default level, at a fraction of the CPU.
+ */
+@Component
+@AllArgsConstructor
+public class ReservationExporter {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "gzip");
+
+    static final String HEADER = "id,reservation_status,schedule_id,tennis_court_id,start_date_time,end_date_time,guest_id,value,refund_value";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReservationService reservationService;
+
+    /**
+     * Writes the reservations of the schedules starting from the start date time up to, but excluding, the end date
+     * time to the stream, which is left open, and returns how many were written.
+     */
+    public long export(LocalDateTime startDateTime, LocalDateTime endDateTime, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(outputStream, BUFFER_SIZE) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(HEADER);
+        writer.write('\n');
+
+        AtomicLong rows = new AtomicLong();
+        StringBuilder row = new StringBuilder(128);
+        try {
+            reservationService.streamReservationsByDates(startDateTime, endDateTime, reservation -> {
+                row.setLength(0);
+                append(row, reservation);
+                try {
+                    writer.append(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        gzip.finish();
+        return rows.get();
+    }
+
+    /**
+     * As above, to a local file, which is replaced.
+     */
+    public long export(LocalDateTime startDateTime, LocalDateTime endDateTime, Path file) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            return this.export(startDateTime, endDateTime, outputStream);
+        }
+    }
+
+    private static void append(StringBuilder row, ReservationSummaryDTO reservation) {
+        row.append(reservation.getId()).append(',')
+                .append(reservation.getReservationStatus()).append(',')
+                .append(reservation.getScheduleId()).append(',')
+                .append(reservation.getTennisCourtId()).append(',');
+        append(row, reservation.getStartDateTime()).append(',');
+        append(row, reservation.getEndDateTime()).append(',');
+        if (reservation.getGuestId() != null) {
+            row.append(reservation.getGuestId());
+        }
+        row.append(',');
+        append(row, reservation.getValue()).append(',');
+        append(row, reservation.getRefundValue()).append('\n');
+    }
+
+    private static StringBuilder append(StringBuilder row, LocalDateTime dateTime) {
+        if (dateTime != null) {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(dateTime, row);
+        }
+        return row;
+    }
+
+    private static StringBuilder append(StringBuilder row, BigDecimal amount) {
+        return amount == null ? row : row.append(amount.toPlainString());
+    }
+}
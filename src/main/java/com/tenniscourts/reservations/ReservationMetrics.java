@@ -0,0 +1,78 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.config.metrics.OperationTimers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+/**
+ * Timers of the {@link ReservationService} operations, counters of reservation status transitions and of the
+ * refund rule applied on cancellation or rescheduling.
+ */
+@Component
+public class ReservationMetrics {
+
+    public enum Operation {
+        BOOK,
+        FIND,
+        CANCEL,
+        RESCHEDULE,
+        FIND_BY_GUEST,
+        FIND_UPCOMING_BY_TENNIS_COURT,
+        HOLD,
+        CONFIRM,
+        STREAM_BY_DATES
+    }
+
+    public enum Refund {
+        FULL,
+        PARTIAL,
+        NONE
+    }
+
+    private static final String NO_STATUS = "none";
+
+    private final OperationTimers<Operation> operations;
+
+    private final Counter[][] transitions;
+
+    private final Counter[] refunds;
+
+    public ReservationMetrics(MeterRegistry meterRegistry) {
+        operations = new OperationTimers<>(meterRegistry, "tennis.reservations", Operation.class);
+
+        ReservationStatus[] statuses = ReservationStatus.values();
+        transitions = new Counter[statuses.length + 1][statuses.length];
+        for (int from = 0; from <= statuses.length; from++) {
+            for (ReservationStatus to : statuses) {
+                transitions[from][to.ordinal()] = Counter.builder("tennis.reservations.transitions")
+                        .tag("from", from == 0 ? NO_STATUS : OperationTimers.tagValue(statuses[from - 1]))
+                        .tag("to", OperationTimers.tagValue(to))
+                        .register(meterRegistry);
+            }
+        }
+
+        refunds = new Counter[Refund.values().length];
+        for (Refund refund : Refund.values()) {
+            refunds[refund.ordinal()] = Counter.builder("tennis.reservations.refunds")
+                    .tag("refund", OperationTimers.tagValue(refund))
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> T record(Operation operation, Supplier<T> action) {
+        return operations.record(operation, action);
+    }
+
+    public void transition(ReservationStatus from, ReservationStatus to) {
+        transitions[from == null ? 0 : from.ordinal() + 1][to.ordinal()].increment();
+    }
+
+    public void refund(BigDecimal value, BigDecimal refundValue) {
+        Refund refund = refundValue.signum() == 0 ? Refund.NONE : refundValue.compareTo(value) >= 0 ? Refund.FULL : Refund.PARTIAL;
+        refunds[refund.ordinal()].increment();
+    }
+}
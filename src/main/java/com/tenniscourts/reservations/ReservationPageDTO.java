@@ -0,0 +1,29 @@
+package com.tenniscourts.reservations;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One keyset page of reservations. The next page is requested with the (nextStartDateTime, nextId) cursor,
+ * both of which are absent on the last page; nextId is a reservation id or, for listings positioned by
+ * schedule, a schedule id.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationPageDTO {
+
+    private List<ReservationSummaryDTO> reservations;
+
+    private LocalDateTime nextStartDateTime;
+
+    private Long nextId;
+}
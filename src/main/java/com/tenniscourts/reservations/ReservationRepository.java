@@ -1,15 +1,136 @@
 package com.tenniscourts.reservations;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"guest", "schedule", "schedule.tennisCourt"})
+    Optional<Reservation> findById(Long id);
+
+    @Query("select r.dateUpdate from Reservation r where r.id = :reservationId")
+    Optional<LocalDateTime> findDateUpdateById(@Param("reservationId") Long reservationId);
+
+    @Query("select r.schedule.id from Reservation r where r.id = :reservationId")
+    Optional<Long> findScheduleIdById(@Param("reservationId") Long reservationId);
+
+    @EntityGraph(attributePaths = {"schedule", "schedule.tennisCourt"})
     List<Reservation> findBySchedule_Id(Long scheduleId);
 
+    /**
+     * Reads the schedule's reservations from the (schedule_id, reservation_status) index. Derived from the method
+     * name, the query outer joins schedules and H2 scans every reservation to evaluate it.
+     */
+    @Query("select case when count(r) > 0 then true else false end from Reservation r " +
+            "where r.schedule.id = :scheduleId and r.reservationStatus in :reservationStatuses")
+    boolean existsBySchedule_IdAndReservationStatusIn(@Param("scheduleId") Long scheduleId, @Param("reservationStatuses") Collection<ReservationStatus> reservationStatuses);
+
+    @Query("select new com.tenniscourts.reservations.ScheduleBooking(r.schedule.id, r.id) from Reservation r " +
+            "where r.reservationStatus in :reservationStatuses")
+    List<ScheduleBooking> findScheduleBookingsByReservationStatusIn(@Param("reservationStatuses") Collection<ReservationStatus> reservationStatuses);
+
+    @Query("select r.schedule.id from Reservation r where r.id in :reservationIds and r.reservationStatus = :reservationStatus")
+    List<Long> findScheduleIdsByIdInAndReservationStatus(@Param("reservationIds") Collection<Long> reservationIds,
+                                                         @Param("reservationStatus") ReservationStatus reservationStatus);
+
+    @EntityGraph(attributePaths = {"guest", "schedule", "schedule.tennisCourt"})
+    List<Reservation> findByIdInAndReservationStatus(Collection<Long> reservationIds, ReservationStatus reservationStatus);
+
+    List<Reservation> findByReservationStatus(ReservationStatus reservationStatus);
+
+    @EntityGraph(attributePaths = {"schedule", "schedule.tennisCourt"})
     List<Reservation> findByReservationStatusAndSchedule_StartDateTimeGreaterThanEqualAndSchedule_EndDateTimeLessThanEqual(ReservationStatus reservationStatus, LocalDateTime startDateTime, LocalDateTime endDateTime);
 
+    /**
+     * Same status and window filter as above, narrowed to a set of tennis courts and read in id order after the
+     * given reservation id, one page at a time.
+     */
+    @Query("select new com.tenniscourts.reservations.CancellableReservation(r.id, r.reservationStatus, r.value, s.id, s.startDateTime, s.tennisCourt.id, g.id) " +
+            "from Reservation r join r.schedule s left join r.guest g " +
+            "where r.reservationStatus in :reservationStatuses and s.startDateTime >= :startDateTime and s.endDateTime <= :endDateTime " +
+            "and s.tennisCourt.id in :tennisCourtIds and r.id > :afterId order by r.id")
+    List<CancellableReservation> findPageByReservationStatusAndTennisCourtsAndWindow(@Param("reservationStatuses") Collection<ReservationStatus> reservationStatuses,
+                                                                                    @Param("tennisCourtIds") Collection<Long> tennisCourtIds,
+                                                                                    @Param("startDateTime") LocalDateTime startDateTime,
+                                                                                    @Param("endDateTime") LocalDateTime endDateTime,
+                                                                                    @Param("afterId") Long afterId,
+                                                                                    Pageable pageable);
+
+    @Query("select count(r) from Reservation r join r.schedule s " +
+            "where r.reservationStatus in :reservationStatuses and s.startDateTime >= :startDateTime and s.endDateTime <= :endDateTime " +
+            "and s.tennisCourt.id in :tennisCourtIds and r.id > :afterId")
+    long countByReservationStatusAndTennisCourtsAndWindow(@Param("reservationStatuses") Collection<ReservationStatus> reservationStatuses,
+                                                          @Param("tennisCourtIds") Collection<Long> tennisCourtIds,
+                                                          @Param("startDateTime") LocalDateTime startDateTime,
+                                                          @Param("endDateTime") LocalDateTime endDateTime,
+                                                          @Param("afterId") Long afterId);
+
+    String SUMMARY = "select new com.tenniscourts.reservations.ReservationSummaryDTO(r.id, r.reservationStatus, s.id, s.tennisCourt.id, " +
+            "s.startDateTime, s.endDateTime, r.guest.id, r.value, r.refundValue) from Reservation r join r.schedule s ";
+
+    /**
+     * Keyset page of a guest's reservations in one status, positioned strictly before the
+     * (beforeStartDateTime, beforeId) cursor and ordered newest first; read from the guest index.
+     */
+    @Query(SUMMARY + "where r.guest.id = :guestId and r.reservationStatus = :reservationStatus " +
+            "and (r.scheduleStartDateTime < :beforeStartDateTime or (r.scheduleStartDateTime = :beforeStartDateTime and r.id < :beforeId)) " +
+            "order by r.scheduleStartDateTime desc, r.id desc")
+    List<ReservationSummaryDTO> findPageByGuestIdAndReservationStatus(@Param("guestId") Long guestId,
+                                                                     @Param("reservationStatus") ReservationStatus reservationStatus,
+                                                                     @Param("beforeStartDateTime") LocalDateTime beforeStartDateTime,
+                                                                     @Param("beforeId") Long beforeId,
+                                                                     Pageable pageable);
+
+    /**
+     * As above, in every status.
+     */
+    @Query(SUMMARY + "where r.guest.id = :guestId " +
+            "and (r.scheduleStartDateTime < :beforeStartDateTime or (r.scheduleStartDateTime = :beforeStartDateTime and r.id < :beforeId)) " +
+            "order by r.scheduleStartDateTime desc, r.id desc")
+    List<ReservationSummaryDTO> findPageByGuestId(@Param("guestId") Long guestId,
+                                                  @Param("beforeStartDateTime") LocalDateTime beforeStartDateTime,
+                                                  @Param("beforeId") Long beforeId,
+                                                  Pageable pageable);
+
+    /**
+     * Keyset page of the reservations in one status of a tennis court positioned strictly after the
+     * (afterStartDateTime, afterScheduleId) cursor. The court's schedules are read in order from the schedule
+     * index, which is why the order names the court too, and each is joined to its reservation through the
+     * schedule index of reservations; only the rows of the page are visited. The cursor is the only bound on the
+     * start: H2 prices a separate range on it above the plain tennis court foreign key index and sorts instead.
+     */
+    @Query(SUMMARY + "where s.tennisCourt.id = :tennisCourtId and r.reservationStatus = :reservationStatus " +
+            "and (s.startDateTime > :afterStartDateTime or (s.startDateTime = :afterStartDateTime and s.id > :afterScheduleId)) " +
+            "order by s.tennisCourt.id, s.startDateTime, s.id")
+    List<ReservationSummaryDTO> findPageByTennisCourtIdAndReservationStatus(@Param("tennisCourtId") Long tennisCourtId,
+                                                                           @Param("reservationStatus") ReservationStatus reservationStatus,
+                                                                           @Param("afterStartDateTime") LocalDateTime afterStartDateTime,
+                                                                           @Param("afterScheduleId") Long afterScheduleId,
+                                                                           Pageable pageable);
+
+    /**
+     * Every reservation of the schedules starting from the start date time up to, but excluding, the end date time,
+     * read in id order from the primary
+     * key through a forward-only cursor. Projections are not managed, so the persistence context stays empty
+     * however many rows are read.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY + "where r.scheduleStartDateTime >= :startDateTime and r.scheduleStartDateTime < :endDateTime order by r.id")
+    Stream<ReservationSummaryDTO> streamByScheduleStartDateTimeRange(@Param("startDateTime") LocalDateTime startDateTime,
+                                                                    @Param("endDateTime") LocalDateTime endDateTime);
+
 //    List<Reservation> findByStartDateTimeGreaterThanEqualAndEndDateTimeLessThanEqualAndTennisCourt(LocalDateTime startDateTime, LocalDateTime endDateTime, TennisCourt tennisCourt);
 }
@@ -1,48 +1,417 @@
 package com.tenniscourts.reservations;
 
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
 import com.tenniscourts.exceptions.EntityNotFoundException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.guests.GuestService;
+import com.tenniscourts.outbox.OutboxService;
+import com.tenniscourts.pricing.PricingEngine;
+import com.tenniscourts.schedules.CourtAvailabilityIndex;
+import com.tenniscourts.schedules.Schedule;
+import com.tenniscourts.schedules.ScheduleChangedEvent;
+import com.tenniscourts.schedules.ScheduleRepository;
+import com.tenniscourts.waitlists.WaitlistService;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class ReservationService {
 
+    static final int MAX_BOOKING_ATTEMPTS = 3;
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Cursor of a first newest-first page: after every slot that can be scheduled.
+     */
+    static final LocalDateTime LAST_START_DATE_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    public static final String OUTBOX_AGGREGATE_TYPE = "Reservation";
+
+    public static final String OUTBOX_STATUS_CHANGED = "ReservationStatusChanged";
+
     private final ReservationRepository reservationRepository;
 
     private final ReservationMapper reservationMapper;
 
+    private final ScheduleRepository scheduleRepository;
+
+    private final GuestRepository guestRepository;
+
+    private final GuestService guestService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CourtAvailabilityIndex courtAvailabilityIndex;
+
+    private final ReservationMetrics reservationMetrics;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final OutboxService outboxService;
+
+    private final PricingEngine pricingEngine;
+
+    private final WaitlistService waitlistService;
+
+    private final HoldLeases holdLeases;
+
+    private final HoldProperties holdProperties;
+
+    /**
+     * Books a schedule for a guest. Each attempt runs in its own transaction and bumps the schedule version,
+     * so when two guests race for the same slot only one commit succeeds and the loser retries against the
+     * committed state. Bookings of different schedules never touch the same row and do not contend.
+     */
     public ReservationDTO bookReservation(CreateReservationRequestDTO createReservationRequestDTO) {
-        throw new UnsupportedOperationException();
+        return reservationMetrics.record(ReservationMetrics.Operation.BOOK, () -> {
+            ReservationDTO reservation = this.bookWithRetry(createReservationRequestDTO);
+            reservationMetrics.transition(null, ReservationStatus.READY_TO_PLAY);
+            return reservation;
+        });
     }
 
-    public ReservationDTO findReservation(Long reservationId) {
-        return reservationRepository.findById(reservationId).map(reservationMapper::map).orElseThrow(() -> {
+    private ReservationDTO bookWithRetry(CreateReservationRequestDTO createReservationRequestDTO) {
+        return this.executeWithRetry(() -> reservationMapper.map(this.book(createReservationRequestDTO, ReservationStatus.READY_TO_PLAY, null)));
+    }
+
+    /**
+     * Takes a schedule for a guest while the payment runs, as a booking does, in the held status. The hold is
+     * released after tennis.reservations.holds.duration unless confirmed first.
+     */
+    public ReservationDTO holdReservation(CreateReservationRequestDTO createReservationRequestDTO) {
+        return reservationMetrics.record(ReservationMetrics.Operation.HOLD, () -> {
+            if (holdLeases.isFull()) {
+                throw new BusinessException("Too many slots are held at the moment, please try again.");
+            }
+
+            ReservationDTO reservation = this.executeWithRetry(() -> {
+                Reservation held = this.book(createReservationRequestDTO, ReservationStatus.HELD, LocalDateTime.now().plus(holdProperties.getDuration()));
+                afterCommit(() -> holdLeases.add(held.getId(), held.getHoldExpiresAt()));
+                return reservationMapper.map(held);
+            });
+            reservationMetrics.transition(null, ReservationStatus.HELD);
+            return reservation;
+        });
+    }
+
+    private <T> T executeWithRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                    throw new BusinessException("Schedule is being booked concurrently, please try again.");
+                }
+            }
+        }
+    }
+
+    private Reservation book(CreateReservationRequestDTO createReservationRequestDTO, ReservationStatus status, LocalDateTime holdExpiresAt) {
+        guestService.findGuestById(createReservationRequestDTO.getGuestId());
+        Guest guest = guestRepository.getOne(createReservationRequestDTO.getGuestId());
+
+        Schedule schedule = this.lockForBooking(createReservationRequestDTO.getScheduleId());
+
+        this.validateBooking(schedule);
+
+        Reservation reservation = this.bookFor(guest, schedule, status, holdExpiresAt);
+        courtAvailabilityIndex.markBooked(schedule.getId(), reservation.getId());
+        applicationEventPublisher.publishEvent(new ScheduleChangedEvent(schedule.getTennisCourt().getId()));
+        return reservation;
+    }
+
+    private Reservation bookFor(Guest guest, Schedule schedule, ReservationStatus status, LocalDateTime holdExpiresAt) {
+        Reservation reservation = reservationRepository.save(Reservation.builder()
+                .guest(guest)
+                .schedule(schedule)
+                .value(pricingEngine.deposit(schedule.getTennisCourt().getId(), schedule.getStartDateTime()))
+                .scheduleStartDateTime(schedule.getStartDateTime())
+                .reservationStatus(status)
+                .holdExpiresAt(holdExpiresAt)
+                .build());
+        this.appendStatusChanged(reservation, null);
+        return reservation;
+    }
+
+    /**
+     * Loads the schedule so that its version is bumped on commit; concurrent transactions writing the same
+     * schedule fail with an optimistic locking conflict and are retried.
+     */
+    private Schedule lockForBooking(Long scheduleId) {
+        return scheduleRepository.findForBookingById(scheduleId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Schedule not found.");
+        });
+    }
+
+    private void validateBooking(Schedule schedule) {
+        if (schedule.getStartDateTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Can book only future dates.");
+        }
+
+        validateOpen(schedule);
+
+        if (reservationRepository.existsBySchedule_IdAndReservationStatusIn(schedule.getId(), ReservationStatus.TAKING_SLOT)) {
+            throw new AlreadyExistsEntityException("Schedule is already booked.");
+        }
+    }
+
+    private static void validateOpen(Schedule schedule) {
+        if (schedule.isClosed()) {
+            throw new BusinessException("Schedule is closed.");
+        }
+    }
+
+    /**
+     * Turns a hold into a ready to play reservation. The slot was taken when it was held, so it is only checked
+     * for having been closed since; the schedule is locked so that a confirmation racing the hold's expiry or
+     * the slot's closure fails one of them on commit, and the retry finds the hold confirmed or released.
+     */
+    public ReservationDTO confirmReservation(Long reservationId) {
+        return reservationMetrics.record(ReservationMetrics.Operation.CONFIRM, () -> {
+            ReservationDTO reservation = this.executeWithRetry(() -> reservationMapper.map(this.confirm(reservationId)));
+            reservationMetrics.transition(ReservationStatus.HELD, ReservationStatus.READY_TO_PLAY);
+            return reservation;
+        });
+    }
+
+    private Reservation confirm(Long reservationId) {
+        Long scheduleId = reservationRepository.findScheduleIdById(reservationId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Reservation not found.");
+        });
+
+        Schedule schedule = this.lockForBooking(scheduleId);
+
+        Reservation reservation = reservationRepository.findById(reservationId).orElseThrow(() -> {
             throw new EntityNotFoundException("Reservation not found.");
         });
+
+        if (!ReservationStatus.HELD.equals(reservation.getReservationStatus())) {
+            throw new IllegalArgumentException("Only a held reservation can be confirmed.");
+        }
+
+        validateOpen(schedule);
+
+        if (!reservation.getHoldExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BusinessException("The hold has expired.");
+        }
+
+        reservation.setReservationStatus(ReservationStatus.READY_TO_PLAY);
+        reservation.setHoldExpiresAt(null);
+        this.appendStatusChanged(reservation, ReservationStatus.HELD);
+        return reservation;
     }
 
+    /**
+     * Cancels the given reservations that are still held past their expiry and releases their slots, in one
+     * transaction; when that conflicts with a concurrent change of one of the slots, each is expired on its own.
+     * Returns how many holds were released.
+     */
+    public int expireHolds(Collection<Long> reservationIds) {
+        int expired;
+        try {
+            expired = transactionTemplate.execute(status -> this.expire(reservationIds));
+        } catch (ConcurrencyFailureException e) {
+            expired = 0;
+            for (Long reservationId : reservationIds) {
+                expired += this.executeWithRetry(() -> this.expire(Collections.singletonList(reservationId)));
+            }
+        }
+
+        for (int i = 0; i < expired; i++) {
+            reservationMetrics.transition(ReservationStatus.HELD, ReservationStatus.CANCELLED);
+        }
+        return expired;
+    }
+
+    private int expire(Collection<Long> reservationIds) {
+        // the versions are read before the reservations, so a confirmation committed in between fails this on commit
+        List<Long> scheduleIds = reservationRepository.findScheduleIdsByIdInAndReservationStatus(reservationIds, ReservationStatus.HELD);
+        scheduleIds.stream().sorted().distinct().forEach(this::lockForBooking);
+
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (Reservation reservation : reservationRepository.findByIdInAndReservationStatus(reservationIds, ReservationStatus.HELD)) {
+            if (reservation.getHoldExpiresAt().isAfter(now)) {
+                // its lease was drained with the expired ones, so it is leased again to be expired on time
+                Long reservationId = reservation.getId();
+                LocalDateTime holdExpiresAt = reservation.getHoldExpiresAt();
+                afterCommit(() -> holdLeases.add(reservationId, holdExpiresAt));
+                continue;
+            }
+
+            reservation.setReservationStatus(ReservationStatus.CANCELLED);
+            this.appendStatusChanged(reservation, ReservationStatus.HELD);
+            this.release(reservation);
+            expired++;
+        }
+        return expired;
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationDTO findReservation(Long reservationId) {
+        return reservationMetrics.record(ReservationMetrics.Operation.FIND, () ->
+                reservationRepository.findById(reservationId).map(reservationMapper::map).orElseThrow(() -> {
+                    throw new EntityNotFoundException("Reservation not found.");
+                }));
+    }
+
+    /**
+     * When the reservation was last updated, read without loading it; empty when it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findReservationLastModified(Long reservationId) {
+        return reservationRepository.findDateUpdateById(reservationId);
+    }
+
+    /**
+     * Returns the page of a guest's reservations, in one status or all, that follows the
+     * (beforeStartDateTime, beforeId) cursor, newest first; a null cursor starts from the latest reservation.
+     */
+    @Transactional(readOnly = true)
+    public ReservationPageDTO findReservationsByGuest(Long guestId, ReservationStatus reservationStatus,
+                                                      LocalDateTime beforeStartDateTime, Long beforeId, int size) {
+        validatePageSize(size);
+
+        return reservationMetrics.record(ReservationMetrics.Operation.FIND_BY_GUEST, () -> {
+            LocalDateTime cursorStartDateTime = beforeStartDateTime == null ? LAST_START_DATE_TIME : beforeStartDateTime;
+            Long cursorId = beforeStartDateTime == null || beforeId == null ? Long.MAX_VALUE : beforeId;
+            return page(reservationStatus == null
+                    ? reservationRepository.findPageByGuestId(guestId, cursorStartDateTime, cursorId, PageRequest.of(0, size))
+                    : reservationRepository.findPageByGuestIdAndReservationStatus(guestId, reservationStatus, cursorStartDateTime, cursorId, PageRequest.of(0, size)),
+                    size, ReservationSummaryDTO::getId);
+        });
+    }
+
+    /**
+     * Returns the page of a tennis court's ready to play reservations that have not started yet and follow the
+     * (afterStartDateTime, afterScheduleId) cursor, soonest first; a null or past cursor starts from now. A schedule has
+     * at most one ready to play reservation, so the cursor is positioned by schedule.
+     */
+    @Transactional(readOnly = true)
+    public ReservationPageDTO findUpcomingReservationsByTennisCourt(Long tennisCourtId, LocalDateTime afterStartDateTime, Long afterScheduleId, int size) {
+        validatePageSize(size);
+
+        return reservationMetrics.record(ReservationMetrics.Operation.FIND_UPCOMING_BY_TENNIS_COURT, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            boolean fromNow = afterStartDateTime == null || afterScheduleId == null || afterStartDateTime.isBefore(now);
+            return page(reservationRepository.findPageByTennisCourtIdAndReservationStatus(tennisCourtId, ReservationStatus.READY_TO_PLAY,
+                    fromNow ? now : afterStartDateTime,
+                    fromNow ? Long.MIN_VALUE : afterScheduleId,
+                    PageRequest.of(0, size)), size, ReservationSummaryDTO::getScheduleId);
+        });
+    }
+
+    /**
+     * Hands every reservation of the schedules starting from the start date time up to, but excluding, the end date
+     * time to the consumer in id order, read through a forward-only cursor as projections, so memory use does not grow with the range.
+     */
+    @Transactional(readOnly = true)
+    public void streamReservationsByDates(LocalDateTime startDateTime, LocalDateTime endDateTime, Consumer<ReservationSummaryDTO> consumer) {
+        reservationMetrics.record(ReservationMetrics.Operation.STREAM_BY_DATES, () -> {
+            try (Stream<ReservationSummaryDTO> reservations = reservationRepository.streamByScheduleStartDateTimeRange(startDateTime, endDateTime)) {
+                reservations.forEach(consumer);
+            }
+            return null;
+        });
+    }
+
+    private static void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    private static ReservationPageDTO page(List<ReservationSummaryDTO> reservations, int size, Function<ReservationSummaryDTO, Long> cursorId) {
+        ReservationPageDTO page = ReservationPageDTO.builder().reservations(reservations).build();
+        if (reservations.size() == size) {
+            ReservationSummaryDTO last = reservations.get(size - 1);
+            page.setNextStartDateTime(last.getStartDateTime());
+            page.setNextId(cursorId.apply(last));
+        }
+        return page;
+    }
+
+    /**
+     * Cancels a reservation and hands the slot to the first guest on its waitlist, in one transaction.
+     */
     public ReservationDTO cancelReservation(Long reservationId) {
-        return reservationMapper.map(this.cancel(reservationId));
+        return reservationMetrics.record(ReservationMetrics.Operation.CANCEL, () -> {
+            ReservationDTO reservation = this.executeWithRetry(() -> reservationMapper.map(this.cancel(reservationId)));
+            reservationMetrics.transition(ReservationStatus.READY_TO_PLAY, ReservationStatus.CANCELLED);
+            return reservation;
+        });
     }
 
     private Reservation cancel(Long reservationId) {
+        Long scheduleId = reservationRepository.findScheduleIdById(reservationId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Reservation not found.");
+        });
+
+        // the version is read before the reservation, so a waitlist join committed in between fails this one on commit
+        this.lockForBooking(scheduleId);
+
         return reservationRepository.findById(reservationId).map(reservation -> {
 
             this.validateCancellation(reservation);
 
             BigDecimal refundValue = getRefundValue(reservation);
-            return this.updateReservation(reservation, refundValue, ReservationStatus.CANCELLED);
+            this.countRefundAfterCommit(reservation.getValue(), refundValue);
+            Reservation cancelledReservation = this.updateReservation(reservation, refundValue, ReservationStatus.CANCELLED);
+            this.appendStatusChanged(cancelledReservation, ReservationStatus.READY_TO_PLAY);
+            this.release(reservation);
+            return cancelledReservation;
 
         }).orElseThrow(() -> {
             throw new EntityNotFoundException("Reservation not found.");
         });
     }
 
+    /**
+     * Passes the slot of a reservation released in the current transaction on to the first guest waiting for it,
+     * or marks it free; a closed slot is never passed on.
+     */
+    private void release(Reservation reservation) {
+        Schedule schedule = reservation.getSchedule();
+        Optional<Reservation> promoted = schedule.isClosed()
+                ? Optional.empty()
+                : waitlistService.promoteNext(schedule, guest -> this.bookFor(guest, schedule, ReservationStatus.READY_TO_PLAY, null));
+        if (promoted.isPresent()) {
+            courtAvailabilityIndex.markPassedOn(schedule.getId(), reservation.getId(), promoted.get().getId());
+        } else {
+            courtAvailabilityIndex.markFree(schedule.getId(), reservation.getId());
+        }
+        applicationEventPublisher.publishEvent(new ScheduleChangedEvent(schedule.getTennisCourt().getId()));
+    }
+
+    /**
+     * Counts the refund only once it is committed, so attempts rolled back and retried are not counted.
+     */
+    private void countRefundAfterCommit(BigDecimal value, BigDecimal refundValue) {
+        afterCommit(() -> reservationMetrics.refund(value, refundValue));
+    }
+
     private Reservation updateReservation(Reservation reservation, BigDecimal refundValue, ReservationStatus status) {
         reservation.setReservationStatus(status);
         reservation.setValue(reservation.getValue().subtract(refundValue));
@@ -51,7 +420,22 @@ public class ReservationService {
         return reservationRepository.save(reservation);
     }
 
-    private void validateCancellation(Reservation reservation) {
+    /**
+     * Records the reservation's new status in the outbox, within the transaction that changed it.
+     */
+    private void appendStatusChanged(Reservation reservation, ReservationStatus fromStatus) {
+        outboxService.append(OUTBOX_AGGREGATE_TYPE, reservation.getId(), OUTBOX_STATUS_CHANGED, ReservationStatusChangedDTO.builder()
+                .reservationId(reservation.getId())
+                .scheduleId(reservation.getSchedule().getId())
+                .guestId(reservation.getGuest().getId())
+                .fromStatus(fromStatus)
+                .toStatus(reservation.getReservationStatus())
+                .value(reservation.getValue())
+                .refundValue(reservation.getRefundValue())
+                .build());
+    }
+
+    void validateCancellation(Reservation reservation) {
         if (!ReservationStatus.READY_TO_PLAY.equals(reservation.getReservationStatus())) {
             throw new IllegalArgumentException("Cannot cancel/reschedule because it's not in ready to play status.");
         }
@@ -62,32 +446,79 @@ public class ReservationService {
     }
 
     public BigDecimal getRefundValue(Reservation reservation) {
-        long hours = ChronoUnit.HOURS.between(LocalDateTime.now(), reservation.getSchedule().getStartDateTime());
-
-        if (hours >= 24) {
-            return reservation.getValue();
-        }
-
-        return BigDecimal.ZERO;
+        return pricingEngine.refundValue(reservation.getValue(), reservation.getSchedule().getStartDateTime(), LocalDateTime.now());
     }
 
-    /*TODO: This method actually not fully working, find a way to fix the issue when it's throwing the error:
-            "Cannot reschedule to the same slot.*/
+    /**
+     * Moves a reservation to another schedule in one transaction. Both schedules are locked in id order, so two
+     * guests swapping the same pair of slots cannot deadlock, and everything is validated before the first write;
+     * a rejected or conflicting reschedule leaves the original reservation untouched. The slot left behind goes to
+     * the first guest on its waitlist.
+     */
     public ReservationDTO rescheduleReservation(Long previousReservationId, Long scheduleId) {
-        Reservation previousReservation = cancel(previousReservationId);
+        return reservationMetrics.record(ReservationMetrics.Operation.RESCHEDULE, () -> {
+            ReservationDTO reservation = this.executeWithRetry(() -> this.reschedule(previousReservationId, scheduleId));
+            reservationMetrics.transition(ReservationStatus.READY_TO_PLAY, ReservationStatus.RESCHEDULED);
+            reservationMetrics.transition(null, ReservationStatus.READY_TO_PLAY);
+            return reservation;
+        });
+    }
+
+    private ReservationDTO reschedule(Long previousReservationId, Long scheduleId) {
+        Long previousScheduleId = reservationRepository.findScheduleIdById(previousReservationId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Reservation not found.");
+        });
 
-        if (scheduleId.equals(previousReservation.getSchedule().getId())) {
+        if (scheduleId.equals(previousScheduleId)) {
             throw new IllegalArgumentException("Cannot reschedule to the same slot.");
         }
 
-        previousReservation.setReservationStatus(ReservationStatus.RESCHEDULED);
-        reservationRepository.save(previousReservation);
+        // both versions are read before the reservation, so a reschedule committed in between fails this one on commit
+        Schedule schedule;
+        if (previousScheduleId < scheduleId) {
+            this.lockForBooking(previousScheduleId);
+            schedule = this.lockForBooking(scheduleId);
+        } else {
+            schedule = this.lockForBooking(scheduleId);
+            this.lockForBooking(previousScheduleId);
+        }
+
+        Reservation previousReservation = reservationRepository.findById(previousReservationId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Reservation not found.");
+        });
 
-        ReservationDTO newReservation = bookReservation(CreateReservationRequestDTO.builder()
-                .guestId(previousReservation.getGuest().getId())
-                .scheduleId(scheduleId)
+        this.validateCancellation(previousReservation);
+        this.validateBooking(schedule);
+
+        BigDecimal refundValue = getRefundValue(previousReservation);
+        this.countRefundAfterCommit(previousReservation.getValue(), refundValue);
+        this.updateReservation(previousReservation, refundValue, ReservationStatus.RESCHEDULED);
+
+        Reservation newReservation = reservationRepository.save(Reservation.builder()
+                .guest(previousReservation.getGuest())
+                .schedule(schedule)
+                .value(pricingEngine.deposit(schedule.getTennisCourt().getId(), schedule.getStartDateTime()))
+                .scheduleStartDateTime(schedule.getStartDateTime())
+                .reservationStatus(ReservationStatus.READY_TO_PLAY)
                 .build());
-        newReservation.setPreviousReservation(reservationMapper.map(previousReservation));
-        return newReservation;
+        this.appendStatusChanged(previousReservation, ReservationStatus.READY_TO_PLAY);
+        this.appendStatusChanged(newReservation, null);
+
+        this.release(previousReservation);
+        courtAvailabilityIndex.markBooked(schedule.getId(), newReservation.getId());
+        applicationEventPublisher.publishEvent(new ScheduleChangedEvent(schedule.getTennisCourt().getId()));
+
+        ReservationDTO newReservationDTO = reservationMapper.map(newReservation);
+        newReservationDTO.setPreviousReservation(reservationMapper.map(previousReservation));
+        return newReservationDTO;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
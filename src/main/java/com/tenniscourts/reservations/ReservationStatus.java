@@ -1,7 +1,17 @@
 package com.tenniscourts.reservations;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum ReservationStatus {
   READY_TO_PLAY,
   CANCELLED,
-  RESCHEDULED
+  RESCHEDULED,
+  HELD;
+
+  /**
+   * Statuses in which a reservation keeps its schedule slot from being booked by anyone else.
+   */
+  public static final Set<ReservationStatus> TAKING_SLOT = Collections.unmodifiableSet(EnumSet.of(READY_TO_PLAY, HELD));
 }
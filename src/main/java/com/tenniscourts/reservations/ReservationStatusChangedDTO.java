@@ -0,0 +1,32 @@
+package com.tenniscourts.reservations;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Outbox payload of a reservation moving from one status to another; {@code fromStatus} is null for a new booking.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class ReservationStatusChangedDTO {
+
+    private Long reservationId;
+
+    private Long scheduleId;
+
+    private Long guestId;
+
+    private ReservationStatus fromStatus;
+
+    private ReservationStatus toStatus;
+
+    private BigDecimal value;
+
+    private BigDecimal refundValue;
+}
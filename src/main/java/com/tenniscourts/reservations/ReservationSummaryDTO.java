@@ -0,0 +1,43 @@
+package com.tenniscourts.reservations;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A reservation in a listing, read as a projection of its own columns and its schedule's.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class ReservationSummaryDTO {
+
+    private Long id;
+
+    private String reservationStatus;
+
+    private Long scheduleId;
+
+    private Long tennisCourtId;
+
+    private LocalDateTime startDateTime;
+
+    private LocalDateTime endDateTime;
+
+    private Long guestId;
+
+    private BigDecimal value;
+
+    private BigDecimal refundValue;
+
+    public ReservationSummaryDTO(Long id, ReservationStatus reservationStatus, Long scheduleId, Long tennisCourtId,
+                                 LocalDateTime startDateTime, LocalDateTime endDateTime, Long guestId,
+                                 BigDecimal value, BigDecimal refundValue) {
+        this(id, reservationStatus.name(), scheduleId, tennisCourtId, startDateTime, endDateTime, guestId, value, refundValue);
+    }
+}
@@ -0,0 +1,16 @@
+package com.tenniscourts.reservations;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A reservation taking a schedule slot, as read to rebuild the availability index.
+ */
+@Getter
+@AllArgsConstructor
+public class ScheduleBooking {
+
+    private final Long scheduleId;
+
+    private final Long reservationId;
+}
@@ -0,0 +1,30 @@
+package com.tenniscourts.schedules;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.availability-search")
+public class AvailabilitySearchProperties {
+
+    /**
+     * Threads searching the partitions of one search, the searching thread included; one searches on that thread
+     * alone, which is the fastest on a single processor.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Tennis courts searched per task; searches over no more courts than this run on the calling thread alone.
+     */
+    private int partitionSize = 64;
+
+    /**
+     * Partitions waiting for a worker before the searching thread runs further ones itself.
+     */
+    private int queueCapacity = 1000;
+
+}
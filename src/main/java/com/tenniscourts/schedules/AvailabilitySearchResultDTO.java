@@ -0,0 +1,22 @@
+package com.tenniscourts.schedules;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * The earliest free slots found, ordered by start date and tennis court, and how many courts were searched.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySearchResultDTO {
+
+    private List<AvailableSlotDTO> slots;
+
+    private int searchedTennisCourts;
+}
@@ -0,0 +1,192 @@
+package com.tenniscourts.schedules;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Searches the free slots of many tennis courts at once, in the {@link CourtAvailabilityIndex}.
+ * <p>
+ * The courts are split into partitions searched in parallel on a bounded worker pool, the searching thread taking
+ * the last partition itself; when the queue is full it runs the partitions it cannot hand over too, so a burst of
+ * searches slows down instead of failing. With a parallelism of one the whole search runs on the searching thread.
+ * Each partition keeps only its earliest results in a bounded heap, and stops reading a court at the first run
+ * that would not make it, so a search over many courts builds little more than the page it returns.
+ */
+@Service
+public class AvailabilitySearchService implements DisposableBean {
+
+    static final int MAX_RESULTS = 1000;
+
+    static final int MAX_WINDOW_DAYS = 31;
+
+    static final Comparator<AvailableSlotDTO> ORDER = Comparator.comparing(AvailableSlotDTO::getStartDateTime)
+            .thenComparing(AvailableSlotDTO::getTennisCourtId);
+
+    private final CourtAvailabilityIndex courtAvailabilityIndex;
+
+    private final ScheduleMetrics scheduleMetrics;
+
+    private final int partitionSize;
+
+    private final ExecutorService workers;
+
+    public AvailabilitySearchService(CourtAvailabilityIndex courtAvailabilityIndex, ScheduleMetrics scheduleMetrics,
+                                     AvailabilitySearchProperties properties, MeterRegistry meterRegistry) {
+        this.courtAvailabilityIndex = courtAvailabilityIndex;
+        this.scheduleMetrics = scheduleMetrics;
+        this.partitionSize = properties.getPartitionSize();
+
+        if (properties.getParallelism() < 2) {
+            workers = null;
+            return;
+        }
+
+        int poolSize = properties.getParallelism() - 1;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize,
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("availability-search-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        workers = ExecutorServiceMetrics.monitor(meterRegistry, pool, "tennis.availability.search.workers", Collections.emptyList());
+    }
+
+    /**
+     * Finds the earliest runs of back-to-back free slots lasting at least the given duration and lying entirely
+     * within the window, on the given tennis courts or on all of them. Runs start no earlier than now, as only
+     * future slots can be booked.
+     *
+     * @param tennisCourtIds the courts to search, or null or empty for all courts
+     */
+    public AvailabilitySearchResultDTO findFreeSlots(LocalDateTime startDateTime, LocalDateTime endDateTime, Duration duration,
+                                                     Collection<Long> tennisCourtIds, int size) {
+        return scheduleMetrics.record(ScheduleMetrics.Operation.FIND_FREE_SLOTS, () -> {
+            this.validateSearch(startDateTime, endDateTime, duration, size);
+
+            List<Long> searchedTennisCourtIds = tennisCourtIds == null || tennisCourtIds.isEmpty()
+                    ? courtAvailabilityIndex.findTennisCourtIds()
+                    : new ArrayList<>(new LinkedHashSet<>(tennisCourtIds));
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime searchStartDateTime = startDateTime.isBefore(now) ? now : startDateTime;
+            if (!endDateTime.isAfter(searchStartDateTime)) {
+                return new AvailabilitySearchResultDTO(new ArrayList<>(), searchedTennisCourtIds.size());
+            }
+
+            List<CompletableFuture<List<AvailableSlotDTO>>> partitions = new ArrayList<>();
+            int last = workers == null || searchedTennisCourtIds.isEmpty() ? 0 : (searchedTennisCourtIds.size() - 1) / partitionSize * partitionSize;
+            for (int from = 0; from < last; from += partitionSize) {
+                List<Long> partition = searchedTennisCourtIds.subList(from, from + partitionSize);
+                partitions.add(CompletableFuture.supplyAsync(() -> this.search(partition, searchStartDateTime, endDateTime, duration, size), workers));
+            }
+
+            List<AvailableSlotDTO> slots = this.search(searchedTennisCourtIds.subList(last, searchedTennisCourtIds.size()),
+                    searchStartDateTime, endDateTime, duration, size);
+            for (CompletableFuture<List<AvailableSlotDTO>> partition : partitions) {
+                slots.addAll(partition.join());
+            }
+            return new AvailabilitySearchResultDTO(earliest(slots, size), searchedTennisCourtIds.size());
+        });
+    }
+
+    private void validateSearch(LocalDateTime startDateTime, LocalDateTime endDateTime, Duration duration, int size) {
+        if (!endDateTime.isAfter(startDateTime)) {
+            throw new IllegalArgumentException("End date must be after start date.");
+        }
+
+        if (startDateTime.plusDays(MAX_WINDOW_DAYS).isBefore(endDateTime)) {
+            throw new IllegalArgumentException("Can search at most " + MAX_WINDOW_DAYS + " days at once.");
+        }
+
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive.");
+        }
+
+        if (size < 1 || size > MAX_RESULTS) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_RESULTS + ".");
+        }
+    }
+
+    private List<AvailableSlotDTO> search(List<Long> tennisCourtIds, LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                          Duration duration, int size) {
+        PriorityQueue<AvailableSlotDTO> earliest = new PriorityQueue<>(size + 1, ORDER.reversed());
+        for (Long tennisCourtId : tennisCourtIds) {
+            this.collectRuns(tennisCourtId, courtAvailabilityIndex.findFreeSlots(tennisCourtId, startDateTime, endDateTime), duration, earliest, size);
+        }
+        return new ArrayList<>(earliest);
+    }
+
+    /**
+     * Slides over the free slots, which are in start time order, and keeps one result for every slot starting a
+     * run of back-to-back free slots that lasts the duration, made of as few slots as cover it. Once the given
+     * earliest results are full, the court is left at its first run starting no earlier than the latest of them.
+     */
+    private void collectRuns(Long tennisCourtId, List<CourtAvailabilityIndex.Slot> freeSlots, Duration duration,
+                             PriorityQueue<AvailableSlotDTO> earliest, int size) {
+        Deque<CourtAvailabilityIndex.Slot> run = new ArrayDeque<>();
+        for (CourtAvailabilityIndex.Slot slot : freeSlots) {
+            if (!run.isEmpty()) {
+                LocalDateTime runEndDateTime = run.getLast().getEndDateTime();
+                if (slot.getStartDateTime().isBefore(runEndDateTime)) {
+                    continue;
+                }
+                if (slot.getStartDateTime().isAfter(runEndDateTime)) {
+                    run.clear();
+                }
+            }
+
+            run.addLast(slot);
+            while (!run.isEmpty() && Duration.between(run.getFirst().getStartDateTime(), run.getLast().getEndDateTime()).compareTo(duration) >= 0) {
+                if (earliest.size() == size && !isEarlier(run.getFirst().getStartDateTime(), tennisCourtId, earliest.peek())) {
+                    return;
+                }
+
+                earliest.add(AvailableSlotDTO.builder()
+                        .tennisCourtId(tennisCourtId)
+                        .startDateTime(run.getFirst().getStartDateTime())
+                        .endDateTime(run.getLast().getEndDateTime())
+                        .scheduleIds(run.stream().map(CourtAvailabilityIndex.Slot::getScheduleId).collect(Collectors.toList()))
+                        .build());
+                if (earliest.size() > size) {
+                    earliest.poll();
+                }
+                run.removeFirst();
+            }
+        }
+    }
+
+    private static boolean isEarlier(LocalDateTime startDateTime, Long tennisCourtId, AvailableSlotDTO slot) {
+        int byStart = startDateTime.compareTo(slot.getStartDateTime());
+        return byStart < 0 || byStart == 0 && tennisCourtId.compareTo(slot.getTennisCourtId()) < 0;
+    }
+
+    private static List<AvailableSlotDTO> earliest(List<AvailableSlotDTO> slots, int size) {
+        slots.sort(ORDER);
+        return slots.size() > size ? new ArrayList<>(slots.subList(0, size)) : slots;
+    }
+
+    @Override
+    public void destroy() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.tenniscourts.schedules;
+
+import com.tenniscourts.reservations.ReservationRepository;
+import com.tenniscourts.reservations.ReservationStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory view of which schedule slots are still free, kept per tennis court in start time order.
+ * <p>
+ * Changes are applied only after the surrounding transaction commits. Each slot keeps the reservations taking it
+ * and those released from it, so a change applied twice, or callbacks of concurrent transactions arriving in any
+ * order, still converge to the committed database state. A closed slot is never free, whatever its reservations.
+ * Slots turning free, taken or closed are published to the {@link SlotAvailabilityFeed}.
+ * <p>
+ * {@link #rebuild()} loads a new view off to the side while searches and changes keep using the current one.
+ * Changes committed meanwhile are recorded and replayed onto the new view, where those the load already saw have
+ * no effect, and the new view then replaces the current one in a single step. The view is loaded before the web
+ * server starts and reloaded every tennis.availability-index.resync-interval, which is how changes committed by
+ * other nodes reach it; bookings are always checked against the database, whatever the view says.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourtAvailabilityIndex {
+
+    static final int OPEN_SLOTS_GAUGE_DAYS = 7;
+
+    private final ScheduleRepository scheduleRepository;
+
+    private final ReservationRepository reservationRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final SlotAvailabilityFeed slotAvailabilityFeed;
+
+    private final Set<Long> gaugedTennisCourtIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Changes hold the read lock to apply to the current view and be recorded for a rebuild in progress; the
+     * rebuild holds the write lock to replay them and swap the views.
+     */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private final Object rebuildLock = new Object();
+
+    private volatile View view = new View();
+
+    private Queue<Change> recordedChanges;
+
+    /**
+     * Read-write, so that the bookings are read from the primary even when read-only work goes to a replica.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Scheduled(fixedDelayString = "#{@courtAvailabilityIndexProperties.resyncInterval.toMillis()}",
+            initialDelayString = "#{@courtAvailabilityIndexProperties.resyncInterval.toMillis()}")
+    @Transactional
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            Queue<Change> changes = new ConcurrentLinkedQueue<>();
+            this.swap(() -> recordedChanges = changes);
+            try {
+                View loaded = this.load();
+                this.swap(() -> {
+                    changes.forEach(change -> change.apply(loaded, false));
+                    view = loaded;
+                });
+            } finally {
+                this.swap(() -> recordedChanges = null);
+            }
+        }
+    }
+
+    /**
+     * Releases already applied to the current view are carried over, so that the late booking callback of a
+     * reservation cancelled before the load does not take its slot again.
+     */
+    private View load() {
+        View loaded = new View();
+        scheduleRepository.findAll().forEach(schedule -> loaded.put(Slot.of(schedule)));
+        reservationRepository.findScheduleBookingsByReservationStatusIn(ReservationStatus.TAKING_SLOT).forEach(booking -> {
+            Slot slot = loaded.slotsBySchedule.get(booking.getScheduleId());
+            if (slot != null) {
+                slot.book(booking.getReservationId());
+            }
+        });
+        view.slotsBySchedule.values().forEach(slot -> {
+            Slot loadedSlot = loaded.slotsBySchedule.get(slot.getScheduleId());
+            if (loadedSlot != null) {
+                slot.releasedReservationIds().forEach(loadedSlot::release);
+            }
+        });
+        return loaded;
+    }
+
+    public void addSchedule(Schedule schedule) {
+        Slot slot = Slot.of(schedule);
+        afterCommit(() -> this.apply((view, current) -> this.added(view, slot, current)));
+    }
+
+    public void addSchedules(Collection<Schedule> schedules) {
+        List<Slot> slots = new ArrayList<>(schedules.size());
+        schedules.forEach(schedule -> slots.add(Slot.of(schedule)));
+        this.addSlots(slots);
+    }
+
+    /**
+     * Adds slots built with {@link Slot#of(Schedule)}, for callers that do not want to keep the schedules around
+     * until the transaction commits.
+     */
+    public void addSlots(Collection<Slot> slots) {
+        afterCommit(() -> this.apply((view, current) -> slots.forEach(slot -> this.added(view, slot, current))));
+    }
+
+    public void markBooked(Long scheduleId, Long reservationId) {
+        afterCommit(() -> this.apply((view, current) -> this.change(view, current, scheduleId, slot -> slot.book(reservationId))));
+    }
+
+    public void markFree(Long scheduleId, Long reservationId) {
+        afterCommit(() -> this.apply((view, current) -> this.change(view, current, scheduleId, slot -> slot.release(reservationId))));
+    }
+
+    /**
+     * Hands the slot from a released reservation to the one booked in its place, which leaves it taken throughout.
+     */
+    public void markPassedOn(Long scheduleId, Long releasedReservationId, Long bookedReservationId) {
+        afterCommit(() -> this.apply((view, current) -> this.change(view, current, scheduleId, slot -> {
+            slot.release(releasedReservationId);
+            slot.book(bookedReservationId);
+        })));
+    }
+
+    public void markClosed(Collection<Long> scheduleIds) {
+        afterCommit(() -> this.apply((view, current) -> scheduleIds.forEach(scheduleId -> {
+            Slot slot = view.slotsBySchedule.get(scheduleId);
+            if (slot != null && slot.close() && current) {
+                publish(SlotAvailabilityChangeDTO.Change.CLOSED, slot);
+            }
+        })));
+    }
+
+    /**
+     * Free slots of a tennis court lying entirely within the given window, ordered by start time.
+     */
+    public List<Slot> findFreeSlots(Long tennisCourtId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        List<Slot> freeSlots = new ArrayList<>();
+        NavigableSet<Slot> slots = view.slotsByTennisCourt.get(tennisCourtId);
+        if (slots == null) {
+            return freeSlots;
+        }
+
+        for (Slot slot : slots.subSet(Slot.lowerBound(startDateTime), true, Slot.upperBound(endDateTime), true)) {
+            if (slot.isFree() && !slot.getEndDateTime().isAfter(endDateTime)) {
+                freeSlots.add(slot);
+            }
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Number of free slots of a tennis court starting within the next {@value #OPEN_SLOTS_GAUGE_DAYS} days.
+     */
+    public int countOpenSlots(Long tennisCourtId) {
+        NavigableSet<Slot> slots = view.slotsByTennisCourt.get(tennisCourtId);
+        if (slots == null) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int openSlots = 0;
+        for (Slot slot : slots.subSet(Slot.lowerBound(now), true, Slot.upperBound(now.plusDays(OPEN_SLOTS_GAUGE_DAYS)), true)) {
+            if (slot.isFree()) {
+                openSlots++;
+            }
+        }
+        return openSlots;
+    }
+
+    /**
+     * Tennis courts having any slot indexed, free or not.
+     */
+    public List<Long> findTennisCourtIds() {
+        return new ArrayList<>(view.slotsByTennisCourt.keySet());
+    }
+
+    /**
+     * Tennis courts having at least one free slot entirely within the given window.
+     */
+    public List<Long> findFreeTennisCourtIds(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        List<Long> tennisCourtIds = new ArrayList<>();
+        view.slotsByTennisCourt.forEach((tennisCourtId, slots) -> {
+            for (Slot slot : slots.subSet(Slot.lowerBound(startDateTime), true, Slot.upperBound(endDateTime), true)) {
+                if (slot.isFree() && !slot.getEndDateTime().isAfter(endDateTime)) {
+                    tennisCourtIds.add(tennisCourtId);
+                    return;
+                }
+            }
+        });
+        return tennisCourtIds;
+    }
+
+    private void apply(Change change) {
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            change.apply(view, true);
+            if (recordedChanges != null) {
+                recordedChanges.add(change);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void swap(Runnable action) {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Each view gets its own copy of the slot, as a change recorded during a rebuild is applied to both.
+     */
+    private void added(View view, Slot slot, boolean current) {
+        Slot added = slot.copy();
+        if (view.put(added) && current) {
+            publish(SlotAvailabilityChangeDTO.Change.ADDED, added);
+        }
+    }
+
+    private void change(View view, boolean current, Long scheduleId, Consumer<Slot> change) {
+        Slot slot = view.slotsBySchedule.get(scheduleId);
+        if (slot == null) {
+            return;
+        }
+
+        synchronized (slot) {
+            boolean wasFree = slot.isFree();
+            change.accept(slot);
+            if (current && wasFree != slot.isFree()) {
+                publish(wasFree ? SlotAvailabilityChangeDTO.Change.BOOKED : SlotAvailabilityChangeDTO.Change.FREED, slot);
+            }
+        }
+    }
+
+    private void publish(SlotAvailabilityChangeDTO.Change change, Slot slot) {
+        slotAvailabilityFeed.publish(SlotAvailabilityChangeDTO.builder()
+                .change(change)
+                .scheduleId(slot.getScheduleId())
+                .tennisCourtId(slot.getTennisCourtId())
+                .startDateTime(slot.getStartDateTime())
+                .endDateTime(slot.getEndDateTime())
+                .build());
+    }
+
+    private void registerOpenSlotsGauge(Long tennisCourtId) {
+        Gauge.builder("tennis.courts.open.slots", this, index -> index.countOpenSlots(tennisCourtId))
+                .description("Free schedule slots in the next " + OPEN_SLOTS_GAUGE_DAYS + " days")
+                .tag("tennisCourtId", String.valueOf(tennisCourtId))
+                .register(meterRegistry);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * A committed change, applied to the current view and replayed onto one being rebuilt.
+     */
+    @FunctionalInterface
+    private interface Change {
+
+        /**
+         * Publishes what the change turns free, taken or closed only when applied to the current view.
+         */
+        void apply(View view, boolean current);
+    }
+
+    private class View {
+
+        private final Map<Long, NavigableSet<Slot>> slotsByTennisCourt = new ConcurrentHashMap<>();
+
+        private final Map<Long, Slot> slotsBySchedule = new ConcurrentHashMap<>();
+
+        /**
+         * Returns false when the schedule was already indexed.
+         */
+        boolean put(Slot slot) {
+            if (slotsBySchedule.putIfAbsent(slot.getScheduleId(), slot) != null) {
+                return false;
+            }
+
+            NavigableSet<Slot> slots = slotsByTennisCourt.get(slot.getTennisCourtId());
+            if (slots == null) {
+                NavigableSet<Slot> newSlots = new ConcurrentSkipListSet<>(Slot.ORDER);
+                slots = slotsByTennisCourt.putIfAbsent(slot.getTennisCourtId(), newSlots);
+                if (slots == null) {
+                    slots = newSlots;
+                    if (gaugedTennisCourtIds.add(slot.getTennisCourtId())) {
+                        registerOpenSlotsGauge(slot.getTennisCourtId());
+                    }
+                }
+            }
+            slots.add(slot);
+            return true;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Slot {
+
+        static final Comparator<Slot> ORDER = Comparator.comparing(Slot::getStartDateTime).thenComparing(Slot::getScheduleId);
+
+        private final Long scheduleId;
+
+        private final Long tennisCourtId;
+
+        private final LocalDateTime startDateTime;
+
+        private final LocalDateTime endDateTime;
+
+        @Getter(AccessLevel.NONE)
+        private Set<Long> reservationIds;
+
+        @Getter(AccessLevel.NONE)
+        private Set<Long> releasedReservationIds;
+
+        @Getter(AccessLevel.NONE)
+        private volatile int bookings;
+
+        @Getter(AccessLevel.NONE)
+        private volatile boolean closed;
+
+        public static Slot of(Schedule schedule) {
+            Slot slot = new Slot(schedule.getId(), schedule.getTennisCourt().getId(), schedule.getStartDateTime(), schedule.getEndDateTime());
+            slot.closed = schedule.isClosed();
+            return slot;
+        }
+
+        public boolean isFree() {
+            return !closed && bookings == 0;
+        }
+
+        /**
+         * Counts the reservation as taking the slot, unless it was released from it already.
+         */
+        synchronized void book(Long reservationId) {
+            if (releasedReservationIds != null && releasedReservationIds.contains(reservationId)) {
+                return;
+            }
+
+            if (reservationIds == null) {
+                reservationIds = new HashSet<>(2);
+            }
+            reservationIds.add(reservationId);
+            bookings = reservationIds.size();
+        }
+
+        synchronized void release(Long reservationId) {
+            if (releasedReservationIds == null) {
+                releasedReservationIds = new HashSet<>(2);
+            }
+            releasedReservationIds.add(reservationId);
+
+            if (reservationIds != null && reservationIds.remove(reservationId)) {
+                bookings = reservationIds.size();
+            }
+        }
+
+        /**
+         * Returns false when the slot was closed already.
+         */
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        synchronized List<Long> releasedReservationIds() {
+            return releasedReservationIds == null ? Collections.emptyList() : new ArrayList<>(releasedReservationIds);
+        }
+
+        /**
+         * The same slot, open or closed, without its reservations.
+         */
+        Slot copy() {
+            Slot copy = new Slot(scheduleId, tennisCourtId, startDateTime, endDateTime);
+            copy.closed = closed;
+            return copy;
+        }
+
+        static Slot lowerBound(LocalDateTime startDateTime) {
+            return new Slot(Long.MIN_VALUE, null, startDateTime, null);
+        }
+
+        static Slot upperBound(LocalDateTime startDateTime) {
+            return new Slot(Long.MAX_VALUE, null, startDateTime, null);
+        }
+    }
+}
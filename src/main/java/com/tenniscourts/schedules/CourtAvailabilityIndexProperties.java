@@ -0,0 +1,22 @@
+package com.tenniscourts.schedules;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("tennis.availability-index")
+public class CourtAvailabilityIndexProperties {
+
+    /**
+     * Pause between two reloads of the availability index from the database, which bounds how long changes
+     * committed by other nodes take to show in this node's searches.
+     */
+    private Duration resyncInterval = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,48 @@
+package com.tenniscourts.schedules;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Recurrence rule expanded into one schedule per slot of slotMinutes between openingTime and closingTime,
+ * on every day from startDate to endDate, for every given tennis court.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateRecurringSchedulesRequestDTO {
+
+    @NotEmpty
+    private List<Long> tennisCourtIds;
+
+    @NotNull
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalDate endDate;
+
+    @JsonFormat(pattern = "HH:mm")
+    @NotNull
+    private LocalTime openingTime;
+
+    @JsonFormat(pattern = "HH:mm")
+    @NotNull
+    private LocalTime closingTime;
+
+    @Min(1)
+    @Builder.Default
+    private int slotMinutes = 60;
+}
@@ -0,0 +1,17 @@
+package com.tenniscourts.schedules;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringSchedulesResultDTO {
+
+    private int createdSchedules;
+
+    private int skippedSchedules;
+}
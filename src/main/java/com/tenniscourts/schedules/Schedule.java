@@ -12,16 +12,19 @@ import lombok.Setter;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table
+@Table(indexes = @Index(name = "idx_schedule_tennis_court_start", columnList = "tennis_court_id, startDateTime, id"))
 @Getter
 @Setter
 @Builder
@@ -30,7 +33,7 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = true, exclude = "reservations")
 public class Schedule extends BaseEntity<Long> {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @NotNull
     private TennisCourt tennisCourt;
 
@@ -42,9 +45,21 @@ public class Schedule extends BaseEntity<Long> {
     @NotNull
     private LocalDateTime endDateTime;
 
-    @OneToMany
+    /**
+     * Set when a venue closure covers the slot; a closed slot can no longer be booked, held or waited for.
+     */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean closed;
+
+    @OneToMany(mappedBy = "schedule")
     private List<Reservation> reservations;
 
+    /**
+     * Bumped on every booking so that two concurrent bookings of the same slot cannot both commit.
+     */
+    @Version
+    private Long version;
+
     public void addReservation(Reservation reservation) {
         if (this.reservations == null) {
             this.reservations = new ArrayList<>();
@@ -0,0 +1,18 @@
+package com.tenniscourts.schedules;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when schedules of a tennis court are created or booked or freed, so that views of the court's
+ * schedules can be refreshed once the change commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ScheduleChangedEvent {
+
+    private final Long tennisCourtId;
+
+}
@@ -1,32 +1,129 @@
 package com.tenniscourts.schedules;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tenniscourts.config.BaseRestController;
+import com.tenniscourts.config.idempotency.IdempotentRequests;
+import com.tenniscourts.config.web.ConditionalGet;
+import com.tenniscourts.config.web.RequestExecutor;
+import io.swagger.annotations.ApiOperation;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+@RestController
+@RequestMapping("/schedules")
 @AllArgsConstructor
 public class ScheduleController extends BaseRestController {
 
     private final ScheduleService scheduleService;
 
-    //TODO: implement rest and swagger
-    public ResponseEntity<Void> addScheduleTennisCourt(CreateScheduleRequestDTO createScheduleRequestDTO) {
-        return ResponseEntity.created(locationByEntity(scheduleService.addSchedule(createScheduleRequestDTO.getTennisCourtId(), createScheduleRequestDTO).getId())).build();
+    private final ObjectMapper objectMapper;
+
+    private final RequestExecutor requestExecutor;
+
+    private final IdempotentRequests idempotentRequests;
+
+    private final SlotAvailabilityFeed slotAvailabilityFeed;
+
+    private final AvailabilitySearchService availabilitySearchService;
+
+    @ApiOperation("Creates a one hour schedule slot for a tennis court; retries carrying the same Idempotency-Key get the original response")
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Void>> addScheduleTennisCourt(@RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+                                                                          @Valid @RequestBody CreateScheduleRequestDTO createScheduleRequestDTO) {
+        UriComponentsBuilder currentRequest = ServletUriComponentsBuilder.fromCurrentRequest();
+        return idempotentRequests.execute(idempotencyKey, "addSchedule", createScheduleRequestDTO, () ->
+                requestExecutor.submit(() -> ResponseEntity.created(locationByEntity(currentRequest,
+                        scheduleService.addSchedule(createScheduleRequestDTO.getTennisCourtId(), createScheduleRequestDTO).getId())).build()));
+    }
+
+    @ApiOperation("Creates the schedule slots of a recurring timetable for a set of tennis courts")
+    @PostMapping("/bulk")
+    public CompletableFuture<ResponseEntity<RecurringSchedulesResultDTO>> addRecurringSchedules(@Valid @RequestBody CreateRecurringSchedulesRequestDTO createRecurringSchedulesRequestDTO) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(scheduleService.addSchedules(createRecurringSchedulesRequestDTO)));
+    }
+
+    @ApiOperation("Finds one page of the schedules between two dates, ordered by start date and id")
+    @GetMapping
+    public CompletableFuture<ResponseEntity<SchedulePageDTO>> findSchedulesByDates(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStartDateTime,
+                                                                @RequestParam(required = false) Long afterId,
+                                                                @RequestParam(defaultValue = "100") int size) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(scheduleService.findSchedulesByDates(LocalDateTime.of(startDate, LocalTime.of(0, 0)), LocalDateTime.of(endDate, LocalTime.of(23, 59)),
+                afterStartDateTime, afterId, size)));
+    }
+
+    @ApiOperation("Streams all the schedules between two dates as a single JSON array")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSchedulesByDates(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                scheduleService.streamSchedulesByDates(LocalDateTime.of(startDate, LocalTime.of(0, 0)), LocalDateTime.of(endDate, LocalTime.of(23, 59)), schedule -> {
+                    try {
+                        generator.writeObject(schedule);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        });
+    }
+
+    @ApiOperation("Finds the earliest runs of back-to-back free slots lasting the given minutes between two date times, across all tennis courts or the given ones")
+    @GetMapping("/free")
+    public CompletableFuture<ResponseEntity<AvailabilitySearchResultDTO>> findFreeSlots(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDateTime,
+                                                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDateTime,
+                                                                                        @RequestParam(defaultValue = "60") long durationMinutes,
+                                                                                        @RequestParam(required = false) List<Long> tennisCourtIds,
+                                                                                        @RequestParam(defaultValue = "100") int size) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(availabilitySearchService.findFreeSlots(startDateTime, endDateTime,
+                Duration.ofMinutes(durationMinutes), tennisCourtIds, size)));
     }
 
-    //TODO: implement rest and swagger
-    public ResponseEntity<List<ScheduleDTO>> findSchedulesByDates(LocalDate startDate,
-                                                                  LocalDate endDate) {
-        return ResponseEntity.ok(scheduleService.findSchedulesByDates(LocalDateTime.of(startDate, LocalTime.of(0, 0)), LocalDateTime.of(endDate, LocalTime.of(23, 59))));
+    @ApiOperation("Pushes slot availability changes as server-sent events, for one tennis court or all, optionally between two dates")
+    @GetMapping(value = "/availability", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailabilityChanges(@RequestParam(required = false) Long tennisCourtId,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return slotAvailabilityFeed.subscribe(tennisCourtId,
+                startDate == null ? null : LocalDateTime.of(startDate, LocalTime.of(0, 0)),
+                endDate == null ? null : LocalDateTime.of(endDate, LocalTime.of(23, 59)));
     }
 
-    //TODO: implement rest and swagger
-    public ResponseEntity<ScheduleDTO> findByScheduleId(Long scheduleId) {
-        return ResponseEntity.ok(scheduleService.findSchedule(scheduleId));
+    @ApiOperation("Finds a schedule by id; answers 304 when the If-None-Match or If-Modified-Since copy is current")
+    @GetMapping("/{scheduleId}")
+    public CompletableFuture<ResponseEntity<ScheduleDTO>> findByScheduleId(@PathVariable Long scheduleId, @RequestHeader HttpHeaders requestHeaders) {
+        ConditionalGet conditionalGet = ConditionalGet.of(requestHeaders);
+        return requestExecutor.submit(() -> conditionalGet.respond(scheduleService.findScheduleLastModified(scheduleId),
+                () -> scheduleService.findSchedule(scheduleId)));
     }
 }
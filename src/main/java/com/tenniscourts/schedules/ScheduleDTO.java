@@ -26,4 +26,6 @@ public class ScheduleDTO {
     @JsonFormat(pattern="yyyy-MM-dd'T'HH:mm")
     private LocalDateTime endDateTime;
 
+    private boolean closed;
+
 }
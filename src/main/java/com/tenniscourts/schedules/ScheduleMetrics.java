@@ -0,0 +1,42 @@
+package com.tenniscourts.schedules;
+
+import com.tenniscourts.config.metrics.OperationTimers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Timers of the {@link ScheduleService} operations and a counter of the schedule slots created.
+ */
+@Component
+public class ScheduleMetrics {
+
+    public enum Operation {
+        ADD,
+        ADD_RECURRING,
+        FIND,
+        FIND_BY_DATES,
+        STREAM_BY_DATES,
+        FIND_BY_TENNIS_COURT,
+        FIND_FREE_SLOTS
+    }
+
+    private final OperationTimers<Operation> operations;
+
+    private final Counter createdSchedules;
+
+    public ScheduleMetrics(MeterRegistry meterRegistry) {
+        operations = new OperationTimers<>(meterRegistry, "tennis.schedules", Operation.class);
+        createdSchedules = Counter.builder("tennis.schedules.created").register(meterRegistry);
+    }
+
+    public <T> T record(Operation operation, Supplier<T> action) {
+        return operations.record(operation, action);
+    }
+
+    public void created(int schedules) {
+        createdSchedules.increment(schedules);
+    }
+}
@@ -0,0 +1,28 @@
+package com.tenniscourts.schedules;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One keyset page of schedules. The next page is requested with the (nextStartDateTime, nextId) cursor,
+ * both of which are absent on the last page.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulePageDTO {
+
+    private List<ScheduleDTO> schedules;
+
+    private LocalDateTime nextStartDateTime;
+
+    private Long nextId;
+}
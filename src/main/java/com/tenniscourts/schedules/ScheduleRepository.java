@@ -1,10 +1,92 @@
 package com.tenniscourts.schedules;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "tennisCourt")
+    List<Schedule> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "tennisCourt")
+    Optional<Schedule> findById(Long id);
+
+    @EntityGraph(attributePaths = "tennisCourt")
     List<Schedule> findByTennisCourt_IdOrderByStartDateTime(Long id);
-}
\ No newline at end of file
+
+    @Query("select s.startDateTime from Schedule s " +
+            "where s.tennisCourt.id = :tennisCourtId and s.startDateTime between :startDateTime and :endDateTime")
+    List<LocalDateTime> findStartDateTimesByTennisCourtId(@Param("tennisCourtId") Long tennisCourtId,
+                                                          @Param("startDateTime") LocalDateTime startDateTime,
+                                                          @Param("endDateTime") LocalDateTime endDateTime);
+
+    /**
+     * The last update of the schedule row itself; bookings bump the version alone, and change nothing a schedule
+     * shows.
+     */
+    @Query("select s.dateUpdate from Schedule s where s.id = :scheduleId")
+    Optional<LocalDateTime> findDateUpdateById(@Param("scheduleId") Long scheduleId);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<Schedule> findForBookingById(Long id);
+
+    /**
+     * Closes the open schedules of the tennis courts lying within the window. The version is bumped as a booking
+     * bumps it, so bookings, holds and waitlist joins racing the closure fail on commit and retry against it.
+     */
+    @Modifying
+    @Query("update Schedule s set s.closed = true, s.version = s.version + 1, " +
+            "s.dateUpdate = :dateUpdate, s.userUpdate = :userUpdate, s.ipNumberUpdate = :ipNumberUpdate " +
+            "where s.tennisCourt.id in :tennisCourtIds and s.startDateTime >= :startDateTime and s.endDateTime <= :endDateTime " +
+            "and s.closed = false")
+    int closeByTennisCourtsAndWindow(@Param("tennisCourtIds") Collection<Long> tennisCourtIds,
+                                     @Param("startDateTime") LocalDateTime startDateTime,
+                                     @Param("endDateTime") LocalDateTime endDateTime,
+                                     @Param("dateUpdate") LocalDateTime dateUpdate,
+                                     @Param("userUpdate") Long userUpdate,
+                                     @Param("ipNumberUpdate") String ipNumberUpdate);
+
+    @Query("select s.id from Schedule s " +
+            "where s.tennisCourt.id in :tennisCourtIds and s.startDateTime >= :startDateTime and s.endDateTime <= :endDateTime " +
+            "and s.closed = true")
+    List<Long> findClosedIdsByTennisCourtsAndWindow(@Param("tennisCourtIds") Collection<Long> tennisCourtIds,
+                                                    @Param("startDateTime") LocalDateTime startDateTime,
+                                                    @Param("endDateTime") LocalDateTime endDateTime);
+
+    /**
+     * Keyset page of schedules starting within the given range, positioned strictly after the
+     * (afterStartDateTime, afterId) cursor and ordered by (startDateTime, id).
+     */
+    @Query("select s from Schedule s join fetch s.tennisCourt " +
+            "where s.startDateTime between :startDateTime and :endDateTime " +
+            "and (s.startDateTime > :afterStartDateTime or (s.startDateTime = :afterStartDateTime and s.id > :afterId)) " +
+            "order by s.startDateTime, s.id")
+    List<Schedule> findPageByStartDateTimeBetween(@Param("startDateTime") LocalDateTime startDateTime,
+                                                  @Param("endDateTime") LocalDateTime endDateTime,
+                                                  @Param("afterStartDateTime") LocalDateTime afterStartDateTime,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select s from Schedule s join fetch s.tennisCourt " +
+            "where s.startDateTime between :startDateTime and :endDateTime " +
+            "order by s.startDateTime, s.id")
+    Stream<Schedule> streamByStartDateTimeBetween(@Param("startDateTime") LocalDateTime startDateTime,
+                                                  @Param("endDateTime") LocalDateTime endDateTime);
+}
@@ -1,35 +1,214 @@
 package com.tenniscourts.schedules;
 
+import com.tenniscourts.exceptions.EntityNotFoundException;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class ScheduleService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final int MAX_RECURRENCE_DAYS = 366;
+
+    static final int INSERT_BATCH_SIZE = 50;
+
     private final ScheduleRepository scheduleRepository;
 
     private final ScheduleMapper scheduleMapper;
 
+    private final TennisCourtRepository tennisCourtRepository;
+
+    private final CourtAvailabilityIndex courtAvailabilityIndex;
+
+    private final EntityManager entityManager;
+
+    private final ScheduleMetrics scheduleMetrics;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Transactional
     public ScheduleDTO addSchedule(Long tennisCourtId, CreateScheduleRequestDTO createScheduleRequestDTO) {
-        //TODO: implement addSchedule
-        return null;
+        return scheduleMetrics.record(ScheduleMetrics.Operation.ADD, () -> {
+            Schedule schedule = scheduleRepository.save(Schedule.builder()
+                    .tennisCourt(tennisCourtRepository.findById(tennisCourtId).orElseThrow(() -> {
+                        throw new EntityNotFoundException("Tennis Court not found.");
+                    }))
+                    .startDateTime(createScheduleRequestDTO.getStartDateTime())
+                    .endDateTime(createScheduleRequestDTO.getStartDateTime().plusHours(1))
+                    .build());
+
+            courtAvailabilityIndex.addSchedule(schedule);
+            applicationEventPublisher.publishEvent(new ScheduleChangedEvent(tennisCourtId));
+            scheduleMetrics.created(1);
+            return scheduleMapper.map(schedule);
+        });
+    }
+
+    /**
+     * Expands the recurrence rule into schedule slots and inserts them in JDBC batches, flushing and clearing
+     * the persistence context every batch. Only the slot values are kept for the availability index, so the
+     * inserted schedules can be collected once flushed. Slots already scheduled on a court at the same start are
+     * skipped.
+     */
+    @Transactional
+    public RecurringSchedulesResultDTO addSchedules(CreateRecurringSchedulesRequestDTO request) {
+        return scheduleMetrics.record(ScheduleMetrics.Operation.ADD_RECURRING, () -> {
+            RecurringSchedulesResultDTO result = this.createSchedules(request);
+            scheduleMetrics.created(result.getCreatedSchedules());
+            return result;
+        });
+    }
+
+    private RecurringSchedulesResultDTO createSchedules(CreateRecurringSchedulesRequestDTO request) {
+        this.validateRecurrence(request);
+
+        LocalDateTime firstStart = LocalDateTime.of(request.getStartDate(), request.getOpeningTime());
+        LocalDateTime lastStart = LocalDateTime.of(request.getEndDate(), request.getClosingTime());
+
+        List<CourtAvailabilityIndex.Slot> created = new ArrayList<>();
+        int skipped = 0;
+        for (Long tennisCourtId : new HashSet<>(request.getTennisCourtIds())) {
+            int createdBefore = created.size();
+            TennisCourt tennisCourt = tennisCourtRepository.findById(tennisCourtId).orElseThrow(() -> {
+                throw new EntityNotFoundException("Tennis Court not found.");
+            });
+            Set<LocalDateTime> existingStarts = new HashSet<>(scheduleRepository.findStartDateTimesByTennisCourtId(tennisCourtId, firstStart, lastStart));
+
+            for (LocalDate date = request.getStartDate(); !date.isAfter(request.getEndDate()); date = date.plusDays(1)) {
+                LocalDateTime closing = LocalDateTime.of(date, request.getClosingTime());
+                for (LocalDateTime start = LocalDateTime.of(date, request.getOpeningTime());
+                     !start.plusMinutes(request.getSlotMinutes()).isAfter(closing);
+                     start = start.plusMinutes(request.getSlotMinutes())) {
+
+                    if (existingStarts.contains(start)) {
+                        skipped++;
+                        continue;
+                    }
+
+                    Schedule schedule = Schedule.builder()
+                            .tennisCourt(tennisCourt)
+                            .startDateTime(start)
+                            .endDateTime(start.plusMinutes(request.getSlotMinutes()))
+                            .build();
+                    entityManager.persist(schedule);
+                    created.add(CourtAvailabilityIndex.Slot.of(schedule));
+
+                    if (created.size() % INSERT_BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            }
+
+            if (created.size() > createdBefore) {
+                applicationEventPublisher.publishEvent(new ScheduleChangedEvent(tennisCourtId));
+            }
+        }
+
+        courtAvailabilityIndex.addSlots(created);
+        return new RecurringSchedulesResultDTO(created.size(), skipped);
+    }
+
+    private void validateRecurrence(CreateRecurringSchedulesRequestDTO request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date.");
+        }
+
+        if (ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) >= MAX_RECURRENCE_DAYS) {
+            throw new IllegalArgumentException("Recurrence can span at most " + MAX_RECURRENCE_DAYS + " days.");
+        }
+
+        if (!request.getOpeningTime().isBefore(request.getClosingTime())) {
+            throw new IllegalArgumentException("Opening time must be before closing time.");
+        }
+
+        if (request.getSlotMinutes() < 1) {
+            throw new IllegalArgumentException("Slot length must be positive.");
+        }
+    }
+
+    /**
+     * Returns the page of schedules starting within the given dates that follows the (afterStartDateTime, afterId)
+     * cursor; a null cursor starts from the first schedule.
+     */
+    @Transactional(readOnly = true)
+    public SchedulePageDTO findSchedulesByDates(LocalDateTime startDate, LocalDateTime endDate,
+                                                LocalDateTime afterStartDateTime, Long afterId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        return scheduleMetrics.record(ScheduleMetrics.Operation.FIND_BY_DATES, () -> {
+            List<Schedule> schedules = scheduleRepository.findPageByStartDateTimeBetween(startDate, endDate,
+                    afterStartDateTime == null ? startDate : afterStartDateTime,
+                    afterStartDateTime == null || afterId == null ? Long.MIN_VALUE : afterId,
+                    PageRequest.of(0, size));
+
+            SchedulePageDTO page = SchedulePageDTO.builder().schedules(scheduleMapper.map(schedules)).build();
+            if (schedules.size() == size) {
+                Schedule last = schedules.get(size - 1);
+                page.setNextStartDateTime(last.getStartDateTime());
+                page.setNextId(last.getId());
+            }
+            return page;
+        });
     }
 
-    public List<ScheduleDTO> findSchedulesByDates(LocalDateTime startDate, LocalDateTime endDate) {
-        //TODO: implement
-        return null;
+    /**
+     * Hands every schedule starting within the given dates to the consumer in (startDateTime, id) order. Rows are
+     * read through a forward-only cursor and detached once mapped, so memory use does not grow with the range.
+     */
+    @Transactional(readOnly = true)
+    public void streamSchedulesByDates(LocalDateTime startDate, LocalDateTime endDate, Consumer<ScheduleDTO> consumer) {
+        scheduleMetrics.record(ScheduleMetrics.Operation.STREAM_BY_DATES, () -> {
+            try (Stream<Schedule> schedules = scheduleRepository.streamByStartDateTimeBetween(startDate, endDate)) {
+                schedules.forEach(schedule -> {
+                    consumer.accept(scheduleMapper.map(schedule));
+                    entityManager.detach(schedule);
+                });
+            }
+            return null;
+        });
     }
 
+    @Transactional(readOnly = true)
     public ScheduleDTO findSchedule(Long scheduleId) {
-        //TODO: implement
-        return null;
+        return scheduleMetrics.record(ScheduleMetrics.Operation.FIND, () ->
+                scheduleRepository.findById(scheduleId).map(scheduleMapper::map).orElseThrow(() -> {
+                    throw new EntityNotFoundException("Schedule not found.");
+                }));
+    }
+
+    /**
+     * When the schedule was last updated, read without loading it; empty when it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findScheduleLastModified(Long scheduleId) {
+        return scheduleRepository.findDateUpdateById(scheduleId);
     }
 
+    @Transactional(readOnly = true)
     public List<ScheduleDTO> findSchedulesByTennisCourtId(Long tennisCourtId) {
-        return scheduleMapper.map(scheduleRepository.findByTennisCourt_IdOrderByStartDateTime(tennisCourtId));
+        return scheduleMetrics.record(ScheduleMetrics.Operation.FIND_BY_TENNIS_COURT, () ->
+                scheduleMapper.map(scheduleRepository.findByTennisCourt_IdOrderByStartDateTime(tennisCourtId)));
     }
 }
@@ -0,0 +1,324 @@
+package com.tenniscourts.schedules;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes slot availability changes to server-sent event subscribers, each watching one tennis court or all of
+ * them, optionally limited to a date range.
+ * <p>
+ * Publishing only appends the change to the bounded buffer of every matching subscriber and hands the subscriber
+ * to the feed's own dispatcher threads, so a slow or stalled client never holds up the transaction that made the
+ * change. A subscriber whose buffer overflows, or whose write has blocked for longer than the send timeout, is
+ * evicted and its stream completed; the client should reconnect and reload the schedules it shows. A dispatcher
+ * thread stuck in such a write is replaced until the write returns, so stalled clients cannot starve the others.
+ * Idle connections hold no thread.
+ */
+@Component
+public class SlotAvailabilityFeed implements DisposableBean {
+
+    static final int BUFFER_SIZE = 256;
+
+    static final int DISPATCHER_THREADS = 4;
+
+    static final long SUBSCRIPTION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    static final long HEARTBEAT_MILLIS = 30_000;
+
+    static final long SEND_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * Most dispatcher threads started in place of threads stuck in a stalled write.
+     */
+    static final int MAX_SPARE_DISPATCHER_THREADS = 16;
+
+    private static final int IDLE = 0;
+
+    private static final int SENDING = 1;
+
+    private static final int STALLED = 2;
+
+    private final ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(DISPATCHER_THREADS, DISPATCHER_THREADS,
+            1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new CustomizableThreadFactory("slot-feed-"));
+
+    private final AtomicInteger stalledSends = new AtomicInteger();
+
+    private final Map<Long, Set<Subscriber>> subscribersByTennisCourt = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> allCourtsSubscribers = ConcurrentHashMap.newKeySet();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Counter droppedChanges;
+
+    private final Counter evictedSubscribers;
+
+    public SlotAvailabilityFeed(MeterRegistry meterRegistry) {
+        Gauge.builder("tennis.slots.feed.subscribers", subscribers, Set::size).register(meterRegistry);
+        droppedChanges = Counter.builder("tennis.slots.feed.dropped").description("Changes dropped from full subscriber buffers").register(meterRegistry);
+        evictedSubscribers = Counter.builder("tennis.slots.feed.evicted").description("Subscribers evicted for overflowing or stalling").register(meterRegistry);
+    }
+
+    /**
+     * @param tennisCourtId the court to watch, or null for all courts
+     * @param startDateTime the earliest slot start to report, or null for no lower bound
+     * @param endDateTime   the latest slot start to report, or null for no upper bound
+     */
+    public SseEmitter subscribe(Long tennisCourtId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return register(new SseEmitter(SUBSCRIPTION_TIMEOUT_MILLIS), tennisCourtId, startDateTime, endDateTime);
+    }
+
+    SseEmitter register(SseEmitter emitter, Long tennisCourtId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        Subscriber subscriber = new Subscriber(emitter, tennisCourtId, startDateTime, endDateTime);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscribers.add(subscriber);
+        if (tennisCourtId == null) {
+            allCourtsSubscribers.add(subscriber);
+        } else {
+            // added within the compute, so that it cannot race the removal of the emptied set in Subscriber.close
+            subscribersByTennisCourt.compute(tennisCourtId, (id, courtSubscribers) -> {
+                Set<Subscriber> added = courtSubscribers == null ? ConcurrentHashMap.newKeySet() : courtSubscribers;
+                added.add(subscriber);
+                return added;
+            });
+        }
+        return emitter;
+    }
+
+    public void publish(SlotAvailabilityChangeDTO change) {
+        offer(subscribersByTennisCourt.getOrDefault(change.getTennisCourtId(), Collections.emptySet()), change);
+        offer(allCourtsSubscribers, change);
+    }
+
+    private static void offer(Set<Subscriber> subscribers, SlotAvailabilityChangeDTO change) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.watches(change)) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = HEARTBEAT_MILLIS)
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @Scheduled(fixedDelay = SEND_TIMEOUT_MILLIS / 5)
+    public void evictStalled() {
+        evictStalled(System.nanoTime());
+    }
+
+    void evictStalled(long nowNanos) {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(SEND_TIMEOUT_MILLIS);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sendState.get() == SENDING && nowNanos - subscriber.sendStartedNanos > timeoutNanos
+                    && subscriber.sendState.compareAndSet(SENDING, STALLED)) {
+                subscriber.evict();
+                resizeDispatcher(stalledSends.incrementAndGet());
+            }
+        }
+    }
+
+    private synchronized void resizeDispatcher(int stalled) {
+        int size = DISPATCHER_THREADS + Math.min(Math.max(stalled, 0), MAX_SPARE_DISPATCHER_THREADS);
+        if (size > dispatcher.getMaximumPoolSize()) {
+            dispatcher.setMaximumPoolSize(size);
+            dispatcher.setCorePoolSize(size);
+        } else if (size < dispatcher.getMaximumPoolSize()) {
+            dispatcher.setCorePoolSize(size);
+            dispatcher.setMaximumPoolSize(size);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+
+        private final Long tennisCourtId;
+
+        private final LocalDateTime startDateTime;
+
+        private final LocalDateTime endDateTime;
+
+        private final ArrayDeque<SlotAvailabilityChangeDTO> buffer = new ArrayDeque<>(BUFFER_SIZE);
+
+        private boolean heartbeatDue;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicInteger sendState = new AtomicInteger(IDLE);
+
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private volatile long sendStartedNanos;
+
+        private volatile boolean closed;
+
+        private volatile boolean evicted;
+
+        Subscriber(SseEmitter emitter, Long tennisCourtId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+            this.emitter = emitter;
+            this.tennisCourtId = tennisCourtId;
+            this.startDateTime = startDateTime;
+            this.endDateTime = endDateTime;
+        }
+
+        boolean watches(SlotAvailabilityChangeDTO change) {
+            return (startDateTime == null || !change.getStartDateTime().isBefore(startDateTime))
+                    && (endDateTime == null || !change.getStartDateTime().isAfter(endDateTime));
+        }
+
+        void offer(SlotAvailabilityChangeDTO change) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() == BUFFER_SIZE) {
+                    droppedChanges.increment(buffer.size() + 1);
+                    buffer.clear();
+                    evict();
+                } else {
+                    buffer.addLast(change);
+                }
+            }
+            schedule();
+        }
+
+        /**
+         * Stops delivery and has the dispatcher complete the stream once any write in flight returns.
+         */
+        void evict() {
+            if (evicted) {
+                return;
+            }
+            evicted = true;
+            close();
+            evictedSubscribers.increment();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if ((!closed || evicted) && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty() || heartbeatDue || (evicted && !completed.get());
+        }
+
+        @Override
+        public void run() {
+            try {
+                drain();
+                if (evicted && completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                if (completed.compareAndSet(false, true)) {
+                    emitter.completeWithError(e);
+                }
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+
+            // a change offered after the last drain but before the flag was cleared did not schedule a new run
+            if (hasPending()) {
+                schedule();
+            }
+        }
+
+        private void drain() throws IOException {
+            while (!closed) {
+                List<SlotAvailabilityChangeDTO> changes;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (buffer.isEmpty() && !heartbeatDue) {
+                        return;
+                    }
+                    changes = new ArrayList<>(buffer);
+                    buffer.clear();
+                    sendHeartbeat = heartbeatDue;
+                    heartbeatDue = false;
+                }
+
+                for (SlotAvailabilityChangeDTO change : changes) {
+                    if (closed) {
+                        return;
+                    }
+                    send(SseEmitter.event().name("slot").data(change, MediaType.APPLICATION_JSON));
+                }
+                if (sendHeartbeat && !closed) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+
+        /**
+         * Marks the write as in flight, so that {@link #evictStalled()} can tell when it blocks for too long.
+         */
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedNanos = System.nanoTime();
+            sendState.set(SENDING);
+            try {
+                emitter.send(event);
+            } finally {
+                if (sendState.getAndSet(IDLE) == STALLED) {
+                    resizeDispatcher(stalledSends.decrementAndGet());
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            if (tennisCourtId == null) {
+                allCourtsSubscribers.remove(this);
+            } else {
+                subscribersByTennisCourt.computeIfPresent(tennisCourtId, (id, courtSubscribers) -> {
+                    courtSubscribers.remove(this);
+                    return courtSubscribers.isEmpty() ? null : courtSubscribers;
+                });
+            }
+        }
+    }
+}
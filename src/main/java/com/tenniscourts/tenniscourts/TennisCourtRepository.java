@@ -1,6 +1,14 @@
 package com.tenniscourts.tenniscourts;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 public interface TennisCourtRepository extends JpaRepository<TennisCourt, Long> {
+
+    @Query("select t.dateUpdate from TennisCourt t where t.id = :tennisCourtId")
+    Optional<LocalDateTime> findDateUpdateById(@Param("tennisCourtId") Long tennisCourtId);
 }
@@ -1,9 +1,22 @@
 package com.tenniscourts.tenniscourts;
 
+import com.tenniscourts.config.cache.CacheConfig;
+import com.tenniscourts.config.persistence.ReplicaLagGuard;
 import com.tenniscourts.exceptions.EntityNotFoundException;
+import com.tenniscourts.schedules.ScheduleChangedEvent;
 import com.tenniscourts.schedules.ScheduleService;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 @AllArgsConstructor
@@ -15,19 +28,50 @@ public class TennisCourtService {
 
     private final TennisCourtMapper tennisCourtMapper;
 
+    private final ReplicaLagGuard replicaLagGuard;
+
+    private final CacheManager cacheManager;
+
+    @Caching(put = @CachePut(cacheNames = CacheConfig.TENNIS_COURTS, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.TENNIS_COURT_SCHEDULES, key = "#result.id"))
     public TennisCourtDTO addTennisCourt(TennisCourtDTO tennisCourt) {
         return tennisCourtMapper.map(tennisCourtRepository.saveAndFlush(tennisCourtMapper.map(tennisCourt)));
     }
 
+    @Cacheable(cacheNames = CacheConfig.TENNIS_COURTS)
+    @Transactional(readOnly = true)
     public TennisCourtDTO findTennisCourtById(Long id) {
         return tennisCourtRepository.findById(id).map(tennisCourtMapper::map).orElseThrow(() -> {
             throw new EntityNotFoundException("Tennis Court not found.");
         });
     }
 
+    /**
+     * When the tennis court was last updated, read without loading it; empty when it does not exist. Cached next
+     * to the court itself, so that revalidating a court costs no more than reading it.
+     */
+    @Cacheable(cacheNames = CacheConfig.TENNIS_COURT_VERSIONS, unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findTennisCourtLastModified(Long tennisCourtId) {
+        return tennisCourtRepository.findDateUpdateById(tennisCourtId);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TENNIS_COURT_SCHEDULES)
+    @Transactional(readOnly = true)
     public TennisCourtDTO findTennisCourtWithSchedulesById(Long tennisCourtId) {
+        // called on this rather than through the cache, so filling in the schedules never touches the cached court
         TennisCourtDTO tennisCourtDTO = findTennisCourtById(tennisCourtId);
         tennisCourtDTO.setTennisCourtSchedules(scheduleService.findSchedulesByTennisCourtId(tennisCourtId));
         return tennisCourtDTO;
     }
+
+    /**
+     * Evicts the court's schedules on commit, and again once a replica has caught up, since a read from the
+     * lagging replica in between may have cached them as they were.
+     */
+    @CacheEvict(cacheNames = CacheConfig.TENNIS_COURT_SCHEDULES, key = "#event.tennisCourtId")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        replicaLagGuard.afterMaxLag(() -> cacheManager.getCache(CacheConfig.TENNIS_COURT_SCHEDULES).evict(event.getTennisCourtId()));
+    }
 }
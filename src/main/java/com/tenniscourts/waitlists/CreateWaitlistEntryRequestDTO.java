@@ -0,0 +1,21 @@
+package com.tenniscourts.waitlists;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class CreateWaitlistEntryRequestDTO {
+
+    @NotNull
+    private Long guestId;
+
+    @NotNull
+    private Long scheduleId;
+}
@@ -0,0 +1,51 @@
+package com.tenniscourts.waitlists;
+
+import com.tenniscourts.config.BaseRestController;
+import com.tenniscourts.config.web.RequestExecutor;
+import io.swagger.annotations.ApiOperation;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/waitlist-entries")
+@AllArgsConstructor
+public class WaitlistController extends BaseRestController {
+
+    private final WaitlistService waitlistService;
+
+    private final RequestExecutor requestExecutor;
+
+    @ApiOperation("Puts a guest in line for a booked schedule slot; the first guest in line is booked when the slot is freed")
+    @PostMapping
+    public CompletableFuture<ResponseEntity<WaitlistEntryDTO>> joinWaitlist(@Valid @RequestBody CreateWaitlistEntryRequestDTO createWaitlistEntryRequestDTO) {
+        UriComponentsBuilder currentRequest = ServletUriComponentsBuilder.fromCurrentRequest();
+        return requestExecutor.submit(() -> {
+            WaitlistEntryDTO waitlistEntry = waitlistService.joinWaitlist(createWaitlistEntryRequestDTO);
+            return ResponseEntity.created(locationByEntity(currentRequest, waitlistEntry.getId())).body(waitlistEntry);
+        });
+    }
+
+    @ApiOperation("Finds a waitlist entry with the guest's place in line, or the reservation it was promoted to")
+    @GetMapping("/{waitlistEntryId}")
+    public CompletableFuture<ResponseEntity<WaitlistEntryDTO>> findWaitlistEntry(@PathVariable Long waitlistEntryId) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(waitlistService.findWaitlistEntry(waitlistEntryId)));
+    }
+
+    @ApiOperation("Takes a guest out of line")
+    @PutMapping("/{waitlistEntryId}/withdraw")
+    public CompletableFuture<ResponseEntity<WaitlistEntryDTO>> withdrawWaitlistEntry(@PathVariable Long waitlistEntryId) {
+        return requestExecutor.submit(() -> ResponseEntity.ok(waitlistService.withdrawWaitlistEntry(waitlistEntryId)));
+    }
+}
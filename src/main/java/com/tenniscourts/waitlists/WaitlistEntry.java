@@ -0,0 +1,64 @@
+package com.tenniscourts.waitlists;
+
+import com.tenniscourts.config.persistence.BaseEntity;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.schedules.Schedule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * A guest waiting for a booked schedule. Guests are served in the order of their entry ids, which are handed out
+ * in joining order; the first one still waiting gets the reservation when the slot is freed.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_waitlist_entry_schedule_status", columnList = "schedule_id, status, id"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class WaitlistEntry extends BaseEntity<Long> {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @NotNull
+    private Schedule schedule;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @NotNull
+    private Guest guest;
+
+    @Column
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private WaitlistStatus status;
+
+    /**
+     * The reservation booked for the guest on promotion.
+     */
+    @Column
+    private Long reservationId;
+
+    @Column
+    private LocalDateTime promotedAt;
+
+    @Version
+    private Long version;
+
+}
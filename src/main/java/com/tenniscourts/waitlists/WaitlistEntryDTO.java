@@ -0,0 +1,34 @@
+package com.tenniscourts.waitlists;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class WaitlistEntryDTO {
+
+    private Long id;
+
+    private Long scheduleId;
+
+    private Long guestId;
+
+    private String status;
+
+    /**
+     * Place in line, starting from 1, while waiting; 0 otherwise.
+     */
+    private int position;
+
+    private Long reservationId;
+
+    private LocalDateTime joinedAt;
+
+    private LocalDateTime promotedAt;
+}
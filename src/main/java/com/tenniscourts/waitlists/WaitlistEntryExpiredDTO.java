@@ -0,0 +1,22 @@
+package com.tenniscourts.waitlists;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbox payload telling a waiting guest that the schedule was closed and will not be freed for them.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class WaitlistEntryExpiredDTO {
+
+    private Long waitlistEntryId;
+
+    private Long scheduleId;
+
+    private Long guestId;
+}
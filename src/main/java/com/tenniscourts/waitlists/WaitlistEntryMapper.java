@@ -0,0 +1,14 @@
+package com.tenniscourts.waitlists;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface WaitlistEntryMapper {
+
+    @Mapping(target = "scheduleId", source = "schedule.id")
+    @Mapping(target = "guestId", source = "guest.id")
+    @Mapping(target = "joinedAt", source = "dateCreate")
+    @Mapping(target = "position", ignore = true)
+    WaitlistEntryDTO map(WaitlistEntry source);
+}
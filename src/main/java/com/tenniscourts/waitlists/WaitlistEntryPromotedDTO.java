@@ -0,0 +1,24 @@
+package com.tenniscourts.waitlists;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbox payload telling a waiting guest that the slot is now theirs.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class WaitlistEntryPromotedDTO {
+
+    private Long waitlistEntryId;
+
+    private Long scheduleId;
+
+    private Long guestId;
+
+    private Long reservationId;
+}
@@ -0,0 +1,46 @@
+package com.tenniscourts.waitlists;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    long countByStatus(WaitlistStatus status);
+
+    /**
+     * Reads the schedule's entries from the (schedule_id, status) index, as the derived query would join schedules
+     * and guests first.
+     */
+    @Query("select case when count(e) > 0 then true else false end from WaitlistEntry e " +
+            "where e.schedule.id = :scheduleId and e.guest.id = :guestId and e.status = :status")
+    boolean existsByScheduleIdAndGuestIdAndStatus(@Param("scheduleId") Long scheduleId, @Param("guestId") Long guestId,
+                                                  @Param("status") WaitlistStatus status);
+
+    /**
+     * The schedule's entries in the given status in joining order, read from the (schedule_id, status, id) index.
+     */
+    @Query("select e from WaitlistEntry e where e.schedule.id = :scheduleId and e.status = :status order by e.id")
+    List<WaitlistEntry> findByScheduleIdAndStatusOrderById(@Param("scheduleId") Long scheduleId, @Param("status") WaitlistStatus status,
+                                                           Pageable pageable);
+
+    /**
+     * Counts the schedule's entries in the given status up to and including the given id, from the same index.
+     */
+    @Query("select count(e) from WaitlistEntry e where e.schedule.id = :scheduleId and e.status = :status and e.id <= :id")
+    long countByScheduleIdAndStatusAndIdLessThanEqual(@Param("scheduleId") Long scheduleId, @Param("status") WaitlistStatus status,
+                                                      @Param("id") Long id);
+
+    @Query("select e from WaitlistEntry e join e.schedule s " +
+            "where e.status = :status and s.closed = true and s.tennisCourt.id in :tennisCourtIds " +
+            "and s.startDateTime >= :startDateTime and s.endDateTime <= :endDateTime")
+    List<WaitlistEntry> findByStatusAndClosedSchedulesInWindow(@Param("status") WaitlistStatus status,
+                                                               @Param("tennisCourtIds") Collection<Long> tennisCourtIds,
+                                                               @Param("startDateTime") LocalDateTime startDateTime,
+                                                               @Param("endDateTime") LocalDateTime endDateTime);
+}
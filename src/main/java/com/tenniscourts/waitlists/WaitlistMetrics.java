@@ -0,0 +1,60 @@
+package com.tenniscourts.waitlists;
+
+import com.tenniscourts.config.metrics.OperationTimers;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers of the {@link WaitlistService} operations, of promotions, from the slot being freed to the promoted
+ * guest's reservation being committed, and of how long promoted guests waited, and a gauge of the guests waiting.
+ */
+@Component
+public class WaitlistMetrics {
+
+    public enum Operation {
+        JOIN,
+        FIND,
+        WITHDRAW
+    }
+
+    private final OperationTimers<Operation> operations;
+
+    private final Timer promotions;
+
+    private final Timer waits;
+
+    public WaitlistMetrics(MeterRegistry meterRegistry, WaitlistEntryRepository waitlistEntryRepository) {
+        Gauge.builder("tennis.waitlists.waiting", waitlistEntryRepository, repository -> repository.countByStatus(WaitlistStatus.WAITING))
+                .description("Guests waiting for a booked schedule")
+                .register(meterRegistry);
+        operations = new OperationTimers<>(meterRegistry, "tennis.waitlists", Operation.class);
+        promotions = Timer.builder("tennis.waitlists.promotion")
+                .description("From a slot being freed to the first waiting guest holding it")
+                .register(meterRegistry);
+        waits = Timer.builder("tennis.waitlists.wait")
+                .description("From joining a waitlist to being promoted")
+                .register(meterRegistry);
+    }
+
+    public <T> T record(Operation operation, Supplier<T> action) {
+        return operations.record(operation, action);
+    }
+
+    /**
+     * @param freedAtNanos {@link System#nanoTime()} when the slot was freed
+     * @param joinedAt     when the promoted guest joined the waitlist
+     */
+    public void promoted(long freedAtNanos, LocalDateTime joinedAt) {
+        promotions.record(System.nanoTime() - freedAtNanos, TimeUnit.NANOSECONDS);
+        if (joinedAt != null) {
+            waits.record(Duration.between(joinedAt, LocalDateTime.now()));
+        }
+    }
+}
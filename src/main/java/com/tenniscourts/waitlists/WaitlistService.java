@@ -0,0 +1,223 @@
+package com.tenniscourts.waitlists;
+
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.exceptions.EntityNotFoundException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.guests.GuestService;
+import com.tenniscourts.outbox.OutboxService;
+import com.tenniscourts.reservations.Reservation;
+import com.tenniscourts.reservations.ReservationMetrics;
+import com.tenniscourts.reservations.ReservationRepository;
+import com.tenniscourts.reservations.ReservationStatus;
+import com.tenniscourts.schedules.Schedule;
+import com.tenniscourts.schedules.ScheduleRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lets a guest wait for a booked schedule instead of retrying the booking, and hands a freed slot to the first
+ * guest waiting for it within the transaction that frees it.
+ * <p>
+ * Joining bumps the schedule version as a booking does, and so do cancelling, rescheduling and closing, so a
+ * join never interleaves with the freeing of the same slot: one of them fails on commit and is retried, and a
+ * guest never ends up waiting for a slot that is already free. The head of the line is read from the table in the
+ * freeing transaction, so every node promotes the same guest; guests waiting for a slot that gets closed are
+ * told so and taken out of line.
+ */
+@Service
+@AllArgsConstructor
+public class WaitlistService {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    public static final String OUTBOX_AGGREGATE_TYPE = "WaitlistEntry";
+
+    public static final String OUTBOX_PROMOTED = "WaitlistEntryPromoted";
+
+    public static final String OUTBOX_EXPIRED = "WaitlistEntryExpired";
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+
+    private final WaitlistEntryMapper waitlistEntryMapper;
+
+    private final WaitlistMetrics waitlistMetrics;
+
+    private final ScheduleRepository scheduleRepository;
+
+    private final GuestRepository guestRepository;
+
+    private final GuestService guestService;
+
+    private final ReservationRepository reservationRepository;
+
+    private final ReservationMetrics reservationMetrics;
+
+    private final OutboxService outboxService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public WaitlistEntryDTO joinWaitlist(CreateWaitlistEntryRequestDTO createWaitlistEntryRequestDTO) {
+        return waitlistMetrics.record(WaitlistMetrics.Operation.JOIN, () ->
+                this.executeWithRetry(() -> this.map(this.join(createWaitlistEntryRequestDTO))));
+    }
+
+    private <T> T executeWithRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new BusinessException("Schedule is being booked concurrently, please try again.");
+                }
+            }
+        }
+    }
+
+    private WaitlistEntry join(CreateWaitlistEntryRequestDTO createWaitlistEntryRequestDTO) {
+        guestService.findGuestById(createWaitlistEntryRequestDTO.getGuestId());
+        Guest guest = guestRepository.getOne(createWaitlistEntryRequestDTO.getGuestId());
+
+        Schedule schedule = scheduleRepository.findForBookingById(createWaitlistEntryRequestDTO.getScheduleId()).orElseThrow(() -> {
+            throw new EntityNotFoundException("Schedule not found.");
+        });
+
+        this.validateJoin(schedule, guest);
+
+        return waitlistEntryRepository.save(WaitlistEntry.builder()
+                .schedule(schedule)
+                .guest(guest)
+                .status(WaitlistStatus.WAITING)
+                .build());
+    }
+
+    private void validateJoin(Schedule schedule, Guest guest) {
+        if (schedule.getStartDateTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Can wait only for future dates.");
+        }
+
+        if (schedule.isClosed()) {
+            throw new BusinessException("Schedule is closed.");
+        }
+
+        if (!reservationRepository.existsBySchedule_IdAndReservationStatusIn(schedule.getId(), ReservationStatus.TAKING_SLOT)) {
+            throw new IllegalArgumentException("Schedule is free, book it instead.");
+        }
+
+        if (waitlistEntryRepository.existsByScheduleIdAndGuestIdAndStatus(schedule.getId(), guest.getId(), WaitlistStatus.WAITING)) {
+            throw new AlreadyExistsEntityException("Guest is already waiting for this schedule.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public WaitlistEntryDTO findWaitlistEntry(Long waitlistEntryId) {
+        return waitlistMetrics.record(WaitlistMetrics.Operation.FIND, () -> this.map(this.findEntry(waitlistEntryId)));
+    }
+
+    /**
+     * Takes the guest out of line. The entry version makes a withdrawal racing the guest's promotion fail on
+     * commit, and the retry finds the entry promoted.
+     */
+    public WaitlistEntryDTO withdrawWaitlistEntry(Long waitlistEntryId) {
+        return waitlistMetrics.record(WaitlistMetrics.Operation.WITHDRAW, () -> this.executeWithRetry(() -> {
+            WaitlistEntry entry = this.findEntry(waitlistEntryId);
+            if (!WaitlistStatus.WAITING.equals(entry.getStatus())) {
+                throw new IllegalArgumentException("Only a waiting guest can leave the waitlist.");
+            }
+
+            entry.setStatus(WaitlistStatus.WITHDRAWN);
+            return this.map(entry);
+        }));
+    }
+
+    /**
+     * Books a slot freed in the current transaction for the first guest still waiting for it, through the given
+     * booking function, and returns the new reservation; empty when nobody is waiting.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Reservation> promoteNext(Schedule schedule, Function<Guest, Reservation> book) {
+        long freedAtNanos = System.nanoTime();
+        return waitlistEntryRepository.findByScheduleIdAndStatusOrderById(schedule.getId(), WaitlistStatus.WAITING, PageRequest.of(0, 1))
+                .stream()
+                .findFirst()
+                .map(entry -> this.promote(entry, book, freedAtNanos));
+    }
+
+    /**
+     * Takes every guest waiting for a schedule of the given courts closed within the window out of line, and tells
+     * them through the outbox; a closed slot is never passed on. Returns how many entries expired.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int expireWaiting(Collection<Long> tennisCourtIds, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        List<WaitlistEntry> entries = waitlistEntryRepository.findByStatusAndClosedSchedulesInWindow(WaitlistStatus.WAITING,
+                tennisCourtIds, startDateTime, endDateTime);
+        for (WaitlistEntry entry : entries) {
+            entry.setStatus(WaitlistStatus.EXPIRED);
+            outboxService.append(OUTBOX_AGGREGATE_TYPE, entry.getId(), OUTBOX_EXPIRED, WaitlistEntryExpiredDTO.builder()
+                    .waitlistEntryId(entry.getId())
+                    .scheduleId(entry.getSchedule().getId())
+                    .guestId(entry.getGuest().getId())
+                    .build());
+        }
+        return entries.size();
+    }
+
+    private Reservation promote(WaitlistEntry entry, Function<Guest, Reservation> book, long freedAtNanos) {
+        Reservation reservation = book.apply(entry.getGuest());
+
+        entry.setStatus(WaitlistStatus.PROMOTED);
+        entry.setReservationId(reservation.getId());
+        entry.setPromotedAt(LocalDateTime.now());
+        outboxService.append(OUTBOX_AGGREGATE_TYPE, entry.getId(), OUTBOX_PROMOTED, WaitlistEntryPromotedDTO.builder()
+                .waitlistEntryId(entry.getId())
+                .scheduleId(entry.getSchedule().getId())
+                .guestId(entry.getGuest().getId())
+                .reservationId(reservation.getId())
+                .build());
+
+        afterCommit(() -> {
+            reservationMetrics.transition(null, ReservationStatus.READY_TO_PLAY);
+            waitlistMetrics.promoted(freedAtNanos, entry.getDateCreate());
+        });
+        return reservation;
+    }
+
+    private WaitlistEntry findEntry(Long waitlistEntryId) {
+        return waitlistEntryRepository.findById(waitlistEntryId).orElseThrow(() -> {
+            throw new EntityNotFoundException("Waitlist entry not found.");
+        });
+    }
+
+    private WaitlistEntryDTO map(WaitlistEntry entry) {
+        WaitlistEntryDTO waitlistEntry = waitlistEntryMapper.map(entry);
+        if (WaitlistStatus.WAITING.equals(entry.getStatus())) {
+            waitlistEntry.setPosition((int) waitlistEntryRepository.countByScheduleIdAndStatusAndIdLessThanEqual(
+                    waitlistEntry.getScheduleId(), WaitlistStatus.WAITING, entry.getId()));
+        }
+        return waitlistEntry;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
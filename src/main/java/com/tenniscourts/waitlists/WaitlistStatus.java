@@ -0,0 +1,11 @@
+package com.tenniscourts.waitlists;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    WITHDRAWN,
+    /**
+     * The schedule was closed while the guest was waiting for it.
+     */
+    EXPIRED
+}
@@ -0,0 +1,127 @@
+create sequence tennis_court_seq start with 1000 increment by 50;
+create sequence guest_seq start with 1000 increment by 50;
+create sequence schedule_seq start with 1000 increment by 50;
+create sequence reservation_seq start with 1000 increment by 50;
+create sequence outbox_event_seq start with 1000 increment by 50;
+create sequence bulk_cancellation_seq start with 1000 increment by 50;
+
+create table tennis_court (
+    id bigint not null,
+    date_create timestamp,
+    date_update timestamp,
+    ip_number_create varchar(255),
+    ip_number_update varchar(255),
+    user_create bigint,
+    user_update bigint,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table guest (
+    id bigint not null,
+    date_create timestamp,
+    date_update timestamp,
+    ip_number_create varchar(255),
+    ip_number_update varchar(255),
+    user_create bigint,
+    user_update bigint,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table schedule (
+    id bigint not null,
+    date_create timestamp,
+    date_update timestamp,
+    ip_number_create varchar(255),
+    ip_number_update varchar(255),
+    user_create bigint,
+    user_update bigint,
+    tennis_court_id bigint not null,
+    start_date_time timestamp not null,
+    end_date_time timestamp not null,
+    version bigint,
+    primary key (id),
+    constraint fk_schedule_tennis_court foreign key (tennis_court_id) references tennis_court
+);
+
+create index idx_schedule_tennis_court_start on schedule (tennis_court_id, start_date_time, id);
+
+create table reservation (
+    id bigint not null,
+    date_create timestamp,
+    date_update timestamp,
+    ip_number_create varchar(255),
+    ip_number_update varchar(255),
+    user_create bigint,
+    user_update bigint,
+    guest_id bigint,
+    schedule_id bigint not null,
+    schedule_start_date_time timestamp not null,
+    value decimal(19,2) not null,
+    refund_value decimal(19,2),
+    reservation_status integer not null,
+    primary key (id),
+    constraint fk_reservation_guest foreign key (guest_id) references guest,
+    constraint fk_reservation_schedule foreign key (schedule_id) references schedule
+);
+
+create index idx_reservation_guest_status_start on reservation (guest_id, reservation_status, schedule_start_date_time, id);
+create index idx_reservation_schedule_status on reservation (schedule_id, reservation_status);
+
+create table outbox_event (
+    id bigint not null,
+    date_create timestamp,
+    date_update timestamp,
+    ip_number_create varchar(255),
+    ip_number_update varchar(255),
+    user_create bigint,
+    user_update bigint,
+    aggregate_type varchar(255) not null,
+    aggregate_id bigint not null,
+    event_type varchar(255) not null,
+    payload clob not null,
+    occurred_at timestamp not null,
+    published_at timestamp,
+    attempts integer,
+    primary key (id)
+);
+
+create index idx_outbox_event_published_at on outbox_event (published_at, id);
+
+create table bulk_cancellation (
+    id bigint not null,
+    date_create timestamp,
+    date_update timestamp,
+    ip_number_create varchar(255),
+    ip_number_update varchar(255),
+    user_create bigint,
+    user_update bigint,
+    start_date_time timestamp not null,
+    end_date_time timestamp not null,
+    status varchar(255) not null,
+    last_reservation_id bigint not null,
+    cancelled_reservations bigint,
+    skipped_reservations bigint,
+    refunded_value decimal(19,2) not null,
+    failure varchar(255),
+    finished_at timestamp,
+    primary key (id)
+);
+
+create table bulk_cancellation_tennis_court_ids (
+    bulk_cancellation_id bigint not null,
+    tennis_court_ids bigint,
+    constraint fk_bulk_cancellation_tennis_court_ids foreign key (bulk_cancellation_id) references bulk_cancellation
+);
+
+create table idempotency_record (
+    idempotency_key varchar(300) not null,
+    fingerprint varchar(255) not null,
+    status integer not null,
+    location varchar(2048),
+    created_at timestamp not null,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_record_created_at on idempotency_record (created_at);
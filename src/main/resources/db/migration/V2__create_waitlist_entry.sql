@@ -0,0 +1,22 @@
+create sequence waitlist_entry_seq start with 1000 increment by 50;
+
+create table waitlist_entry (
+    id bigint not null,
+    date_create timestamp,
+    date_update timestamp,
+    ip_number_create varchar(255),
+    ip_number_update varchar(255),
+    user_create bigint,
+    user_update bigint,
+    schedule_id bigint not null,
+    guest_id bigint not null,
+    status varchar(255) not null,
+    reservation_id bigint,
+    promoted_at timestamp,
+    version bigint,
+    primary key (id),
+    constraint fk_waitlist_entry_schedule foreign key (schedule_id) references schedule,
+    constraint fk_waitlist_entry_guest foreign key (guest_id) references guest
+);
+
+create index idx_waitlist_entry_schedule_status on waitlist_entry (schedule_id, status, id);
@@ -0,0 +1 @@
+alter table reservation add column hold_expires_at timestamp;
@@ -0,0 +1 @@
+alter table schedule add column closed boolean default false not null;
@@ -0,0 +1,8 @@
+alter table outbox_event add column aggregate_version bigint;
+alter table outbox_event add column next_attempt_at timestamp;
+alter table outbox_event add column parked_at timestamp;
+
+update outbox_event set aggregate_version = id;
+alter table outbox_event alter column aggregate_version set not null;
+
+create unique index uk_outbox_event_aggregate_version on outbox_event (aggregate_type, aggregate_id, aggregate_version);
@@ -0,0 +1,51 @@
+package com.tenniscourts;
+
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.ReservationDTO;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.schedules.CreateScheduleRequestDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourtDTO;
+import com.tenniscourts.tenniscourts.TennisCourtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Courts, schedules, guests and bookings set up through the services, for the tests running against the whole
+ * application; import it with {@code @Import(BookingFixtures.class)}.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class BookingFixtures {
+
+    private final TennisCourtService tennisCourtService;
+
+    private final ScheduleService scheduleService;
+
+    private final GuestRepository guestRepository;
+
+    private final ReservationService reservationService;
+
+    public Long addTennisCourt(String name) {
+        return tennisCourtService.addTennisCourt(TennisCourtDTO.builder().name(name).build()).getId();
+    }
+
+    public Long addSchedule(Long tennisCourtId, LocalDateTime startDateTime) {
+        CreateScheduleRequestDTO createScheduleRequestDTO = new CreateScheduleRequestDTO();
+        createScheduleRequestDTO.setTennisCourtId(tennisCourtId);
+        createScheduleRequestDTO.setStartDateTime(startDateTime);
+        return scheduleService.addSchedule(tennisCourtId, createScheduleRequestDTO).getId();
+    }
+
+    public Long addGuest(String name) {
+        return guestRepository.save(Guest.builder().name(name).build()).getId();
+    }
+
+    public ReservationDTO book(Long guestId, Long scheduleId) {
+        return reservationService.bookReservation(CreateReservationRequestDTO.builder().guestId(guestId).scheduleId(scheduleId).build());
+    }
+}
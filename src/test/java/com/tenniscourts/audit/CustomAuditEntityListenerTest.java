@@ -0,0 +1,58 @@
+package com.tenniscourts.audit;
+
+import com.tenniscourts.guests.Guest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CustomAuditEntityListenerTest {
+
+    private final CustomAuditEntityListener listener = new CustomAuditEntityListener();
+
+    @After
+    public void tearDown() {
+        AuditContext.clear();
+    }
+
+    @Test
+    public void prePersistWithoutCallerUsesSystemUserAndHostAddress() {
+        Guest guest = Guest.builder().name("Guest").build();
+
+        listener.prePersist(guest);
+
+        Assert.assertEquals(CustomAuditEntityListener.USER_SYSTEM_ID, guest.getUserCreate());
+        Assert.assertEquals(CustomAuditEntityListener.USER_SYSTEM_ID, guest.getUserUpdate());
+        Assert.assertEquals(AuditContext.hostAddress(), guest.getIpNumberCreate());
+        Assert.assertEquals(AuditContext.hostAddress(), guest.getIpNumberUpdate());
+        Assert.assertEquals(guest.getDateCreate(), guest.getDateUpdate());
+    }
+
+    @Test
+    public void prePersistAndPreUpdateUseBoundCaller() {
+        AuditContext.bind("10.1.2.3", 42L);
+        Guest guest = Guest.builder().name("Guest").build();
+
+        listener.prePersist(guest);
+        listener.preUpdate(guest);
+
+        Assert.assertEquals(Long.valueOf(42L), guest.getUserCreate());
+        Assert.assertEquals(Long.valueOf(42L), guest.getUserUpdate());
+        Assert.assertEquals("10.1.2.3", guest.getIpNumberCreate());
+        Assert.assertEquals("10.1.2.3", guest.getIpNumberUpdate());
+    }
+
+    @Test
+    public void preUpdateRecordsTheCallerOfEveryUpdate() {
+        AuditContext.bind("10.1.2.3", 42L);
+        Guest guest = Guest.builder().name("Guest").build();
+        listener.prePersist(guest);
+
+        AuditContext.bind("10.4.5.6", 7L);
+        listener.preUpdate(guest);
+
+        Assert.assertEquals(Long.valueOf(42L), guest.getUserCreate());
+        Assert.assertEquals(Long.valueOf(7L), guest.getUserUpdate());
+        Assert.assertEquals("10.1.2.3", guest.getIpNumberCreate());
+        Assert.assertEquals("10.4.5.6", guest.getIpNumberUpdate());
+    }
+}
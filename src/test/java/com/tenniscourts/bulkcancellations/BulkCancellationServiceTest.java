@@ -0,0 +1,187 @@
+package com.tenniscourts.bulkcancellations;
+
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.outbox.OutboxEventRepository;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.Reservation;
+import com.tenniscourts.reservations.ReservationRepository;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.reservations.ReservationStatus;
+import com.tenniscourts.schedules.Schedule;
+import com.tenniscourts.schedules.ScheduleRepository;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import com.tenniscourts.waitlists.CreateWaitlistEntryRequestDTO;
+import com.tenniscourts.waitlists.WaitlistEntryDTO;
+import com.tenniscourts.waitlists.WaitlistService;
+import com.tenniscourts.waitlists.WaitlistStatus;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.outbox.relay-enabled=false"})
+public class BulkCancellationServiceTest {
+
+    @Autowired
+    BulkCancellationService bulkCancellationService;
+
+    @Autowired
+    BulkCancellationRepository bulkCancellationRepository;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    ScheduleRepository scheduleRepository;
+
+    @Autowired
+    TennisCourtRepository tennisCourtRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    GuestRepository guestRepository;
+
+    @Autowired
+    WaitlistService waitlistService;
+
+    @Test
+    public void cancelsAndRefundsEveryReadyReservationOfTheCourtsInTheWindow() {
+        LocalDateTime day = LocalDateTime.now().plusDays(3).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        TennisCourt closed = tennisCourtRepository.save(new TennisCourt("Closed Court"));
+        TennisCourt open = tennisCourtRepository.save(new TennisCourt("Open Court"));
+        List<Reservation> inWindow = this.reserve(closed, day, BulkCancellationService.CHUNK_SIZE * 2 + 10);
+        List<Reservation> otherCourt = this.reserve(open, day, 5);
+        List<Reservation> nextDay = this.reserve(closed, day.plusDays(1), 5);
+        long pendingEvents = outboxEventRepository.countByPublishedAtIsNull();
+
+        BulkCancellation bulkCancellation = this.start(closed, day.withHour(0), day.withHour(23));
+        bulkCancellationService.run(bulkCancellation.getId());
+
+        BulkCancellation completed = bulkCancellationRepository.findById(bulkCancellation.getId()).get();
+        Assert.assertEquals(BulkCancellationStatus.COMPLETED, completed.getStatus());
+        Assert.assertEquals(inWindow.size(), completed.getCancelledReservations());
+        Assert.assertEquals(0, BigDecimal.TEN.multiply(BigDecimal.valueOf(inWindow.size())).compareTo(completed.getRefundedValue()));
+        Assert.assertEquals(pendingEvents + inWindow.size(), outboxEventRepository.countByPublishedAtIsNull());
+
+        Reservation cancelled = reservationRepository.findById(inWindow.get(0).getId()).get();
+        Assert.assertEquals(ReservationStatus.CANCELLED, cancelled.getReservationStatus());
+        Assert.assertEquals(0, BigDecimal.TEN.compareTo(cancelled.getRefundValue()));
+        Assert.assertEquals(0, BigDecimal.ZERO.compareTo(cancelled.getValue()));
+        Assert.assertEquals(ReservationStatus.READY_TO_PLAY, reservationRepository.findById(otherCourt.get(0).getId()).get().getReservationStatus());
+        Assert.assertEquals(ReservationStatus.READY_TO_PLAY, reservationRepository.findById(nextDay.get(0).getId()).get().getReservationStatus());
+        Assert.assertEquals(0, bulkCancellationService.findBulkCancellation(bulkCancellation.getId()).getRemainingReservations());
+    }
+
+    @Test
+    public void resumesFromTheCheckpoint() {
+        LocalDateTime day = LocalDateTime.now().plusDays(5).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        TennisCourt tennisCourt = tennisCourtRepository.save(new TennisCourt("Flooded Court"));
+        List<Reservation> reservations = this.reserve(tennisCourt, day, 10);
+
+        BulkCancellation bulkCancellation = this.start(tennisCourt, day.withHour(0), day.withHour(23));
+        bulkCancellation.setLastReservationId(reservations.get(3).getId());
+        bulkCancellation.setStatus(BulkCancellationStatus.FAILED);
+        bulkCancellationRepository.save(bulkCancellation);
+        Assert.assertEquals(6, bulkCancellationService.findBulkCancellation(bulkCancellation.getId()).getRemainingReservations());
+
+        bulkCancellation.setStatus(BulkCancellationStatus.RUNNING);
+        bulkCancellationRepository.save(bulkCancellation);
+        bulkCancellationService.run(bulkCancellation.getId());
+
+        Assert.assertEquals(6, bulkCancellationRepository.findById(bulkCancellation.getId()).get().getCancelledReservations());
+        Assert.assertEquals(ReservationStatus.READY_TO_PLAY, reservationRepository.findById(reservations.get(3).getId()).get().getReservationStatus());
+        Assert.assertEquals(ReservationStatus.CANCELLED, reservationRepository.findById(reservations.get(4).getId()).get().getReservationStatus());
+    }
+
+    @Test
+    public void closesTheSchedulesAndReleasesHoldsInTheWindow() {
+        LocalDateTime day = LocalDateTime.now().plusDays(7).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        TennisCourt tennisCourt = tennisCourtRepository.save(new TennisCourt("Resurfaced Court"));
+        List<Reservation> holds = this.reserve(tennisCourt, day, 3, ReservationStatus.HELD);
+        Long guestId = guestRepository.save(Guest.builder().name("Closed Out Guest").build()).getId();
+        WaitlistEntryDTO waiting = waitlistService.joinWaitlist(CreateWaitlistEntryRequestDTO.builder()
+                .guestId(guestId).scheduleId(holds.get(0).getSchedule().getId()).build());
+
+        BulkCancellation bulkCancellation = this.start(tennisCourt, day.withHour(0), day.withHour(23));
+        bulkCancellationService.run(bulkCancellation.getId());
+
+        BulkCancellation completed = bulkCancellationRepository.findById(bulkCancellation.getId()).get();
+        Assert.assertEquals(holds.size(), completed.getCancelledReservations());
+        Assert.assertEquals(0, BigDecimal.ZERO.compareTo(completed.getRefundedValue()));
+        Assert.assertEquals(ReservationStatus.CANCELLED, reservationRepository.findById(holds.get(0).getId()).get().getReservationStatus());
+        // the waiting guest is taken out of line instead of being handed the closed slot
+        Assert.assertEquals(WaitlistStatus.EXPIRED.name(), waitlistService.findWaitlistEntry(waiting.getId()).getStatus());
+
+        // free schedules are closed as well as the released ones
+        List<Schedule> schedules = scheduleRepository.findByTennisCourt_IdOrderByStartDateTime(tennisCourt.getId());
+        Assert.assertEquals(10, schedules.size());
+        schedules.forEach(schedule -> Assert.assertTrue(schedule.isClosed()));
+
+        CreateReservationRequestDTO request = CreateReservationRequestDTO.builder().guestId(guestId).scheduleId(holds.get(0).getSchedule().getId()).build();
+        try {
+            reservationService.bookReservation(request);
+            Assert.fail();
+        } catch (BusinessException e) {
+            // the slot freed by the closure is not bookable
+        }
+        try {
+            reservationService.holdReservation(request);
+            Assert.fail();
+        } catch (BusinessException e) {
+            // nor can it be held
+        }
+    }
+
+    private BulkCancellation start(TennisCourt tennisCourt, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return bulkCancellationRepository.save(BulkCancellation.builder()
+                .tennisCourtIds(Collections.singleton(tennisCourt.getId()))
+                .startDateTime(startDateTime)
+                .endDateTime(endDateTime)
+                .status(BulkCancellationStatus.RUNNING)
+                .lastReservationId(0L)
+                .refundedValue(BigDecimal.ZERO)
+                .build());
+    }
+
+    private List<Reservation> reserve(TennisCourt tennisCourt, LocalDateTime startDateTime, int count) {
+        return this.reserve(tennisCourt, startDateTime, count, ReservationStatus.READY_TO_PLAY);
+    }
+
+    private List<Reservation> reserve(TennisCourt tennisCourt, LocalDateTime startDateTime, int count, ReservationStatus reservationStatus) {
+        List<Schedule> schedules = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            schedules.add(Schedule.builder().tennisCourt(tennisCourt)
+                    .startDateTime(startDateTime.plusHours(i)).endDateTime(startDateTime.plusHours(i + 1)).build());
+        }
+        schedules = scheduleRepository.saveAll(schedules);
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reservations.add(Reservation.builder()
+                    .schedule(schedules.get(i % schedules.size()))
+                    .value(BigDecimal.TEN)
+                    .reservationStatus(reservationStatus)
+                    .holdExpiresAt(ReservationStatus.HELD.equals(reservationStatus) ? LocalDateTime.now().plusMinutes(10) : null)
+                    .scheduleStartDateTime(schedules.get(i % schedules.size()).getStartDateTime())
+                    .build());
+        }
+        return reservationRepository.saveAll(reservations);
+    }
+}
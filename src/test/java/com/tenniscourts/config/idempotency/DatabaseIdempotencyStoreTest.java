@@ -0,0 +1,49 @@
+package com.tenniscourts.config.idempotency;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.idempotency.store=database"})
+public class DatabaseIdempotencyStoreTest {
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
+    @Autowired
+    IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    public void storedResponsesReplayUntilTheyExpire() {
+        Assert.assertTrue(idempotencyStore instanceof DatabaseIdempotencyStore);
+
+        idempotencyStore.save("bookReservation:fresh", new IdempotentResponse("fingerprint", 201, "/reservations/1"));
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .idempotencyKey("bookReservation:expired")
+                .fingerprint("fingerprint")
+                .status(201)
+                .createdAt(LocalDateTime.now().minusDays(2))
+                .build());
+
+        Assert.assertEquals("/reservations/1", idempotencyStore.find("bookReservation:fresh").get().getLocation());
+        Assert.assertFalse(idempotencyStore.find("bookReservation:expired").isPresent());
+
+        ((DatabaseIdempotencyStore) idempotencyStore).purgeExpired();
+        Assert.assertFalse(idempotencyRecordRepository.existsById("bookReservation:expired"));
+        Assert.assertTrue(idempotencyRecordRepository.existsById("bookReservation:fresh"));
+    }
+
+    @Test
+    public void aSecondResponseForTheSameKeyDoesNotReplaceTheFirst() {
+        idempotencyStore.save("bookReservation:twice", new IdempotentResponse("fingerprint", 201, "/reservations/1"));
+        idempotencyStore.save("bookReservation:twice", new IdempotentResponse("fingerprint", 201, "/reservations/2"));
+
+        Assert.assertEquals("/reservations/1", idempotencyStore.find("bookReservation:twice").get().getLocation());
+    }
+}
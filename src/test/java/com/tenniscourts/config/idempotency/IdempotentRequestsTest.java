@@ -0,0 +1,108 @@
+package com.tenniscourts.config.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdempotentRequestsTest {
+
+    private final IdempotentRequests idempotentRequests = new IdempotentRequests(
+            new InMemoryIdempotencyStore(new IdempotencyProperties()), new ObjectMapper());
+
+    private final CreateReservationRequestDTO request = CreateReservationRequestDTO.builder().guestId(1L).scheduleId(7L).build();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    public void replayedKeyReturnsOriginalResponseWithoutExecuting() {
+        ResponseEntity<Void> first = idempotentRequests.execute("key-1", "bookReservation", request, this::created).join();
+        ResponseEntity<Void> replayed = idempotentRequests.execute("key-1", "bookReservation", request, this::created).join();
+
+        Assert.assertEquals(1, executions.get());
+        Assert.assertEquals(201, replayed.getStatusCodeValue());
+        Assert.assertEquals(first.getHeaders().getLocation(), replayed.getHeaders().getLocation());
+        Assert.assertEquals("true", replayed.getHeaders().getFirst(IdempotentRequests.HEADER + "-Replayed"));
+
+        idempotentRequests.execute("key-1", "addSchedule", request, this::created).join();
+        Assert.assertEquals(2, executions.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keyReusedForDifferentRequestIsRejected() {
+        idempotentRequests.execute("key-2", "bookReservation", request, this::created).join();
+        idempotentRequests.execute("key-2", "bookReservation", CreateReservationRequestDTO.builder().guestId(2L).scheduleId(7L).build(), this::created);
+    }
+
+    @Test
+    public void concurrentDuplicatesWaitForTheRunningExecution() {
+        CompletableFuture<ResponseEntity<Void>> running = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Void>> first = idempotentRequests.execute("key-3", "bookReservation", request, () -> {
+            executions.incrementAndGet();
+            return running;
+        });
+        CompletableFuture<ResponseEntity<Void>> duplicate = idempotentRequests.execute("key-3", "bookReservation", request, this::created);
+        Assert.assertFalse(duplicate.isDone());
+
+        running.complete(ResponseEntity.created(URI.create("/reservations/42")).build());
+
+        Assert.assertEquals(1, executions.get());
+        Assert.assertEquals(URI.create("/reservations/42"), first.join().getHeaders().getLocation());
+        Assert.assertEquals(URI.create("/reservations/42"), duplicate.join().getHeaders().getLocation());
+    }
+
+    @Test
+    public void failedExecutionIsNotStored() {
+        try {
+            idempotentRequests.execute("key-4", "bookReservation", request, () -> {
+                executions.incrementAndGet();
+                throw new IllegalStateException("Database unavailable.");
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Database unavailable.", e.getMessage());
+        }
+
+        Assert.assertEquals(201, idempotentRequests.execute("key-4", "bookReservation", request, this::created).join().getStatusCodeValue());
+        Assert.assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void responseThatCannotBeStoredIsStillReturnedAndReleasesTheKey() {
+        IdempotencyStore failingStore = new IdempotencyStore() {
+            @Override
+            public Optional<IdempotentResponse> find(String key) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void save(String key, IdempotentResponse response) {
+                throw new DataIntegrityViolationException("Key stored by another node.");
+            }
+        };
+        IdempotentRequests failingRequests = new IdempotentRequests(failingStore, new ObjectMapper());
+        CompletableFuture<ResponseEntity<Void>> running = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<Void>> first = failingRequests.execute("key-5", "bookReservation", request, () -> running);
+        CompletableFuture<ResponseEntity<Void>> duplicate = failingRequests.execute("key-5", "bookReservation", request, this::created);
+        running.complete(ResponseEntity.created(URI.create("/reservations/42")).build());
+
+        Assert.assertEquals(URI.create("/reservations/42"), first.join().getHeaders().getLocation());
+        Assert.assertEquals(URI.create("/reservations/42"), duplicate.join().getHeaders().getLocation());
+        // the key is not left in flight, so the next request runs instead of waiting forever
+        Assert.assertEquals(201, failingRequests.execute("key-5", "bookReservation", request, this::created).join().getStatusCodeValue());
+        Assert.assertEquals(1, executions.get());
+    }
+
+    private CompletableFuture<ResponseEntity<Void>> created() {
+        return CompletableFuture.completedFuture(ResponseEntity.created(URI.create("/reservations/" + executions.incrementAndGet())).build());
+    }
+}
@@ -0,0 +1,50 @@
+package com.tenniscourts.config.metrics;
+
+import com.tenniscourts.exceptions.EntityNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OperationTimersTest {
+
+    enum Operation {
+        BOOK
+    }
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final OperationTimers<Operation> operationTimers = new OperationTimers<>(meterRegistry, "test.operations", Operation.class);
+
+    @Test
+    public void recordTagsCallsByOutcome() {
+        Assert.assertEquals("booked", operationTimers.record(Operation.BOOK, () -> "booked"));
+
+        try {
+            operationTimers.record(Operation.BOOK, () -> {
+                throw new EntityNotFoundException("Schedule not found.");
+            });
+            Assert.fail();
+        } catch (EntityNotFoundException e) {
+            Assert.assertEquals("Schedule not found.", e.getMessage());
+        }
+
+        try {
+            operationTimers.record(Operation.BOOK, () -> {
+                throw new IllegalArgumentException("Can book only future dates.");
+            });
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Can book only future dates.", e.getMessage());
+        }
+
+        Assert.assertEquals(1, count("success"));
+        Assert.assertEquals(1, count("not_found"));
+        Assert.assertEquals(1, count("rejected"));
+        Assert.assertEquals(0, count("error"));
+    }
+
+    private long count(String outcome) {
+        return meterRegistry.get("test.operations").tag("operation", "book").tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,41 @@
+package com.tenniscourts.config.persistence;
+
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Starting at all proves that the migrations build the schema the entities map to, as Hibernate validates it.
+ */
+@RunWith(SpringRunner.class)
+@ActiveProfiles("production")
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:production-profile;DB_CLOSE_DELAY=-1", "tennis.outbox.relay-enabled=false"})
+public class ProductionProfileTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    GuestRepository guestRepository;
+
+    @Test
+    public void migratesTheSchemaWithoutSeedData() {
+        Assert.assertEquals("3", jdbcTemplate.queryForObject("select max(\"version\") from \"flyway_schema_history\" where \"success\"", String.class));
+        Assert.assertEquals(0, jdbcTemplate.queryForObject("select count(*) from guest where id < 1000", Long.class).longValue());
+
+        Guest guest = guestRepository.save(Guest.builder().name("Production Guest").build());
+        Assert.assertTrue(guest.getId() >= 1000);
+    }
+
+    @Test
+    public void passesTheStatementCacheSizeToTheDriver() {
+        Assert.assertEquals("64", jdbcTemplate.queryForObject("select value from information_schema.settings where name = 'QUERY_CACHE_SIZE'", String.class));
+    }
+}
@@ -0,0 +1,100 @@
+package com.tenniscourts.config.persistence;
+
+import com.tenniscourts.audit.AuditContext;
+import com.tenniscourts.exceptions.EntityNotFoundException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.ReservationDTO;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.schedules.CreateScheduleRequestDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourtDTO;
+import com.tenniscourts.tenniscourts.TennisCourtService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica. The replica is a copy of the primary
+ * taken before the test and never updated, as if replication had stalled, so any row written by the test exists on
+ * the primary only.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.outbox.relay-enabled=false",
+        "tennis.datasource.replica.enabled=true", "tennis.datasource.replica.url=jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1"})
+public class ReplicaRoutingTest {
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    TennisCourtService tennisCourtService;
+
+    @Autowired
+    GuestRepository guestRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    @Before
+    public void copyPrimaryToReplica() throws IOException {
+        File script = File.createTempFile("replica-routing", ".sql");
+        try {
+            new JdbcTemplate(primaryDataSource).execute("script to '" + script.getAbsolutePath() + "'");
+            new JdbcTemplate(replicaDataSource).execute("runscript from '" + script.getAbsolutePath() + "'");
+        } finally {
+            script.delete();
+        }
+    }
+
+    @After
+    public void clearCaller() {
+        AuditContext.clear();
+    }
+
+    @Test
+    public void guestsReadTheirOwnBookingWhileOthersReadTheReplica() {
+        Long tennisCourtId = tennisCourtService.addTennisCourt(TennisCourtDTO.builder().name("Replicated Court").build()).getId();
+        CreateScheduleRequestDTO createScheduleRequestDTO = new CreateScheduleRequestDTO();
+        createScheduleRequestDTO.setTennisCourtId(tennisCourtId);
+        createScheduleRequestDTO.setStartDateTime(LocalDateTime.now().plusDays(2).withNano(0));
+        Long scheduleId = scheduleService.addSchedule(tennisCourtId, createScheduleRequestDTO).getId();
+        Long guestId = guestRepository.save(Guest.builder().name("Replicated Guest").build()).getId();
+
+        AuditContext.bind("10.0.0.1", guestId);
+        ReservationDTO booked = reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                .guestId(guestId)
+                .scheduleId(scheduleId)
+                .build());
+        Assert.assertEquals(booked.getId(), reservationService.findReservation(booked.getId()).getId());
+
+        AuditContext.bind("10.0.0.2", null);
+        try {
+            reservationService.findReservation(booked.getId());
+            Assert.fail();
+        } catch (EntityNotFoundException e) {
+            // read from the replica, which does not have the booking
+        }
+    }
+}
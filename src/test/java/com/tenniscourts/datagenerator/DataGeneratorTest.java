@@ -0,0 +1,63 @@
+package com.tenniscourts.datagenerator;
+
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.reservations.ReservationStatus;
+import com.tenniscourts.schedules.CourtAvailabilityIndex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.outbox.relay-enabled=false",
+        "tennis.data-generator.enabled=true", "tennis.data-generator.tennis-courts=3", "tennis.data-generator.guests=50",
+        "tennis.data-generator.days=30", "tennis.data-generator.start-date=2030-01-01"})
+public class DataGeneratorTest {
+
+    private static final int SCHEDULES_PER_TENNIS_COURT = 30 * 14;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    GuestRepository guestRepository;
+
+    @Autowired
+    CourtAvailabilityIndex courtAvailabilityIndex;
+
+    @Test
+    public void generatesHourlySchedulesBookedWithTheReservationMix() {
+        Assert.assertEquals(3 * SCHEDULES_PER_TENNIS_COURT, this.count("select count(*) from schedule s " +
+                "inner join tennis_court t on t.id = s.tennis_court_id where t.name like 'Court %'"));
+        Assert.assertEquals(0, this.count("select count(*) from (select schedule_id from reservation where reservation_status = ? " +
+                "group by schedule_id having count(*) > 1)", ReservationStatus.READY_TO_PLAY.ordinal()));
+        Assert.assertTrue(this.count("select count(*) from reservation where reservation_status = ?", ReservationStatus.CANCELLED.ordinal()) > 0);
+        Assert.assertTrue(this.count("select count(*) from reservation where reservation_status = ?", ReservationStatus.RESCHEDULED.ordinal()) > 0);
+
+        Long tennisCourtId = jdbcTemplate.queryForObject("select min(id) from tennis_court where name like 'Court %'", Long.class);
+        long freeSchedules = this.count("select count(*) from schedule s where s.tennis_court_id = ? and not exists " +
+                "(select 1 from reservation r where r.schedule_id = s.id and r.reservation_status = ?)", tennisCourtId, ReservationStatus.READY_TO_PLAY.ordinal());
+        Assert.assertTrue(freeSchedules > 0 && freeSchedules < SCHEDULES_PER_TENNIS_COURT);
+        Assert.assertEquals(freeSchedules, courtAvailabilityIndex.findFreeSlots(tennisCourtId,
+                LocalDate.of(2030, 1, 1).atStartOfDay(), LocalDate.of(2030, 2, 1).atStartOfDay()).size());
+    }
+
+    @Test
+    public void leavesTheSequencesPastTheGeneratedIds() {
+        long lastGuestId = this.count("select max(id) from guest");
+
+        Guest guest = guestRepository.save(Guest.builder().name("New Guest").build());
+
+        Assert.assertTrue(guest.getId() > lastGuestId);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
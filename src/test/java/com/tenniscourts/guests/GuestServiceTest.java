@@ -0,0 +1,54 @@
+package com.tenniscourts.guests;
+
+import com.tenniscourts.config.cache.CacheConfig;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info"})
+public class GuestServiceTest {
+
+    @Autowired
+    GuestService guestService;
+
+    @Autowired
+    GuestRepository guestRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Test
+    public void findGuestByIdCachesTheGuestAsDTO() {
+        Long guestId = guestRepository.save(Guest.builder().name("Cached Guest").build()).getId();
+
+        GuestDTO guest = guestService.findGuestById(guestId);
+
+        Assert.assertEquals("Cached Guest", guest.getName());
+        Assert.assertSame(guest, cacheManager.getCache(CacheConfig.GUESTS).get(guestId).get());
+    }
+
+    @Test
+    public void savingAGuestEvictsItOnlyOnceTheTransactionCommits() {
+        Guest guest = guestRepository.save(Guest.builder().name("Old Name").build());
+        guestService.findGuestById(guest.getId());
+
+        transactionTemplate.execute(status -> {
+            guest.setName("New Name");
+            guestRepository.save(guest);
+            Assert.assertNotNull(cacheManager.getCache(CacheConfig.GUESTS).get(guest.getId()));
+            return null;
+        });
+
+        Assert.assertNull(cacheManager.getCache(CacheConfig.GUESTS).get(guest.getId()));
+        Assert.assertEquals("New Name", guestService.findGuestById(guest.getId()).getName());
+    }
+}
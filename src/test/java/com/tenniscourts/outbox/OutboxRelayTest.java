@@ -0,0 +1,140 @@
+package com.tenniscourts.outbox;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info",
+        "tennis.outbox.relay-enabled=false", "tennis.outbox.sinks=flaky,broker"})
+public class OutboxRelayTest {
+
+    @Autowired
+    OutboxService outboxService;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    BrokerOutboxSink brokerOutboxSink;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    OutboxProperties outboxProperties;
+
+    @Autowired
+    FlakySink flakySink;
+
+    @Test(expected = IllegalTransactionStateException.class)
+    public void appendRequiresTheTransactionOfTheStateChange() {
+        outboxService.append("Test", 1L, "Created", "payload");
+    }
+
+    @Test
+    public void failedEventHoldsBackItsAggregateUntilRedelivered() throws Exception {
+        transactionTemplate.execute(status -> {
+            outboxService.append("Test", 1L, "First", "a1");
+            outboxService.append("Test", 1L, "Second", "a2");
+            outboxService.append("Test", 2L, "First", "b1");
+            return null;
+        });
+
+        flakySink.failOn("\"a1\"", 1);
+        LocalDateTime now = LocalDateTime.now();
+        Assert.assertEquals(1, this.relayBatch(now));
+        Assert.assertEquals("\"b1\"", brokerOutboxSink.take(1, TimeUnit.SECONDS).getPayload());
+        Assert.assertEquals(2, outboxEventRepository.countByPublishedAtIsNullAndParkedAtIsNull());
+        // the failed event waits for its retry, and the later event of its aggregate waits for it
+        Assert.assertEquals(0, this.relayBatch(now));
+
+        now = now.plus(outboxProperties.getPollInterval());
+        Assert.assertEquals(1, this.relayBatch(now));
+        Assert.assertEquals("\"a1\"", brokerOutboxSink.take(1, TimeUnit.SECONDS).getPayload());
+        Assert.assertEquals(1, this.relayBatch(now));
+        Assert.assertEquals("\"a2\"", brokerOutboxSink.take(1, TimeUnit.SECONDS).getPayload());
+        Assert.assertEquals(0, outboxEventRepository.countByPublishedAtIsNullAndParkedAtIsNull());
+    }
+
+    @Test
+    public void poisonEventIsParkedWithoutStallingTheOutbox() throws Exception {
+        transactionTemplate.execute(status -> {
+            for (int i = 1; i <= outboxProperties.getBatchSize(); i++) {
+                outboxService.append("Poison", 1L, "Changed", "c" + i);
+            }
+            outboxService.append("Poison", 2L, "Changed", "d1");
+            return null;
+        });
+
+        flakySink.failOn("\"c1\"", Integer.MAX_VALUE);
+        LocalDateTime now = LocalDateTime.now();
+        // a whole batch of events behind the failing one does not keep the other aggregates waiting
+        Assert.assertEquals(1, this.relayBatch(now));
+        Assert.assertEquals("\"d1\"", brokerOutboxSink.take(1, TimeUnit.SECONDS).getPayload());
+
+        for (int attempt = 2; attempt <= outboxProperties.getMaxAttempts(); attempt++) {
+            now = now.plus(outboxProperties.getMaxRetryDelay());
+            Assert.assertEquals(0, this.relayBatch(now));
+        }
+        Assert.assertEquals(1, outboxEventRepository.countByParkedAtIsNotNull());
+
+        Assert.assertEquals(1, this.relayBatch(now));
+        Assert.assertEquals("\"c2\"", brokerOutboxSink.take(1, TimeUnit.SECONDS).getPayload());
+        while (this.relayBatch(now) > 0) {
+            brokerOutboxSink.take(1, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(0, outboxEventRepository.countByPublishedAtIsNullAndParkedAtIsNull());
+    }
+
+    private int relayBatch(LocalDateTime now) {
+        return transactionTemplate.execute(status -> outboxRelay.relayBatch(now));
+    }
+
+    static class FlakySink implements OutboxSink {
+
+        private volatile String failingPayload;
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        void failOn(String payload, int times) {
+            failingPayload = payload;
+            failures.set(times);
+        }
+
+        @Override
+        public String name() {
+            return "flaky";
+        }
+
+        @Override
+        public void deliver(OutboxMessage message) {
+            if (message.getPayload().equals(failingPayload) && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Sink unavailable.");
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class FlakySinkConfig {
+
+        @Bean
+        FlakySink flakySink() {
+            return new FlakySink();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tenniscourts.pricing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class PricingEngineTest {
+
+    private static final LocalDateTime MONDAY_NOON = LocalDateTime.of(2030, 1, 7, 12, 0);
+
+    private static final LocalDateTime MONDAY_EVENING = LocalDateTime.of(2030, 1, 7, 19, 30);
+
+    private static final LocalDateTime SATURDAY_EVENING = LocalDateTime.of(2030, 1, 12, 19, 30);
+
+    @Test
+    public void pricesPeakSlotsAndCourtMultipliers() {
+        PricingRules rules = new PricingRules();
+        rules.setPeakDeposit(new BigDecimal("15"));
+        rules.setCourtMultipliers(Collections.singletonMap(7L, new BigDecimal("1.5")));
+        PricingEngine pricingEngine = new PricingEngine(rules);
+
+        Assert.assertEquals(BigDecimal.TEN, pricingEngine.deposit(1L, MONDAY_NOON));
+        Assert.assertEquals(new BigDecimal("15"), pricingEngine.deposit(1L, MONDAY_EVENING));
+        Assert.assertEquals(BigDecimal.TEN, pricingEngine.deposit(1L, SATURDAY_EVENING));
+        Assert.assertEquals(new BigDecimal("22.50"), pricingEngine.deposit(7L, MONDAY_EVENING));
+    }
+
+    @Test
+    public void refundsByTheLargestNoticeTierReached() {
+        PricingRules rules = new PricingRules();
+        rules.setRefundTiers(Arrays.asList(new RefundTier(48, 100), new RefundTier(6, 25), new RefundTier(24, 50)));
+        PricingEngine pricingEngine = new PricingEngine(rules);
+        BigDecimal value = new BigDecimal("10");
+
+        Assert.assertSame(value, pricingEngine.refundValue(value, MONDAY_NOON, MONDAY_NOON.minusDays(5)));
+        Assert.assertEquals(new BigDecimal("5.00"), pricingEngine.refundValue(value, MONDAY_NOON, MONDAY_NOON.minusHours(30)));
+        Assert.assertEquals(new BigDecimal("2.50"), pricingEngine.refundValue(value, MONDAY_NOON, MONDAY_NOON.minusHours(6)));
+        Assert.assertEquals(BigDecimal.ZERO, pricingEngine.refundValue(value, MONDAY_NOON, MONDAY_NOON.minusHours(5)));
+        Assert.assertEquals(BigDecimal.ZERO, pricingEngine.refundValue(value, MONDAY_NOON, MONDAY_NOON.plusHours(1)));
+    }
+
+    @Test
+    public void swapsRulesAsAWhole() {
+        PricingEngine pricingEngine = new PricingEngine(new PricingRules());
+
+        PricingRules rules = new PricingRules();
+        rules.setOffPeakDeposit(new BigDecimal("8"));
+        pricingEngine.updateRules(rules);
+        Assert.assertEquals(new BigDecimal("8"), pricingEngine.deposit(1L, MONDAY_NOON));
+        Assert.assertSame(rules, pricingEngine.currentRules());
+
+        PricingRules invalid = new PricingRules();
+        invalid.setOffPeakDeposit(BigDecimal.ONE);
+        invalid.setPeakStartHour(20);
+        invalid.setPeakEndHour(20);
+        try {
+            pricingEngine.updateRules(invalid);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(new BigDecimal("8"), pricingEngine.deposit(1L, MONDAY_NOON));
+        }
+    }
+}
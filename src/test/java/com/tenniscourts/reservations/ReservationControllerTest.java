@@ -0,0 +1,99 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.schedules.CreateScheduleRequestDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.web.async.enabled=true"})
+@AutoConfigureMockMvc
+public class ReservationControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Test
+    public void bookReservationRunsOnRequestWorkerWithCallerOfRequest() throws Exception {
+        CreateScheduleRequestDTO createScheduleRequestDTO = new CreateScheduleRequestDTO();
+        createScheduleRequestDTO.setTennisCourtId(1L);
+        createScheduleRequestDTO.setStartDateTime(LocalDateTime.now().plusDays(2).withNano(0));
+        Long scheduleId = scheduleService.addSchedule(1L, createScheduleRequestDTO).getId();
+
+        MvcResult started = mockMvc.perform(post("/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .principal(() -> "42")
+                .content("{\"guestId\": 1, \"scheduleId\": " + scheduleId + "}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String location = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+
+        Long reservationId = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+        Assert.assertTrue(location.endsWith("/reservations/" + reservationId));
+        Assert.assertEquals(Long.valueOf(42), reservationRepository.findById(reservationId).get().getUserCreate());
+    }
+
+    @Test
+    public void findReservationAnswersNotModifiedWhileTheClientCopyIsCurrent() throws Exception {
+        CreateScheduleRequestDTO createScheduleRequestDTO = new CreateScheduleRequestDTO();
+        createScheduleRequestDTO.setTennisCourtId(1L);
+        createScheduleRequestDTO.setStartDateTime(LocalDateTime.now().plusDays(4).withNano(0));
+        Long scheduleId = scheduleService.addSchedule(1L, createScheduleRequestDTO).getId();
+        Long reservationId = reservationService.bookReservation(CreateReservationRequestDTO.builder().guestId(1L).scheduleId(scheduleId).build()).getId();
+
+        MockHttpServletResponse first = this.findReservation(get("/reservations/" + reservationId));
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        Assert.assertEquals(200, first.getStatus());
+        Assert.assertTrue(eTag.startsWith("W/"));
+        Assert.assertNotNull(first.getHeader(HttpHeaders.LAST_MODIFIED));
+
+        MockHttpServletResponse revalidated = this.findReservation(get("/reservations/" + reservationId).header(HttpHeaders.IF_NONE_MATCH, eTag));
+        Assert.assertEquals(304, revalidated.getStatus());
+        Assert.assertEquals(0, revalidated.getContentLength());
+        Assert.assertEquals(304, this.findReservation(get("/reservations/" + reservationId)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, first.getHeader(HttpHeaders.LAST_MODIFIED))).getStatus());
+
+        reservationService.cancelReservation(reservationId);
+
+        MockHttpServletResponse changed = this.findReservation(get("/reservations/" + reservationId).header(HttpHeaders.IF_NONE_MATCH, eTag));
+        Assert.assertEquals(200, changed.getStatus());
+        Assert.assertNotEquals(eTag, changed.getHeader(HttpHeaders.ETAG));
+        Assert.assertTrue(changed.getContentAsString().contains(ReservationStatus.CANCELLED.name()));
+    }
+
+    private MockHttpServletResponse findReservation(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,63 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.BookingFixtures;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.outbox.relay-enabled=false"})
+@Import(BookingFixtures.class)
+public class ReservationExporterTest {
+
+    @Autowired
+    BookingFixtures bookingFixtures;
+
+    @Autowired
+    ReservationExporter reservationExporter;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Test
+    public void exportsTheReservationsOfTheRangeAsCompressedCsv() throws IOException {
+        Long tennisCourtId = bookingFixtures.addTennisCourt("Export Court");
+        LocalDateTime day = LocalDateTime.now().plusYears(3).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        Long guestId = bookingFixtures.addGuest("Exported");
+
+        ReservationDTO first = bookingFixtures.book(guestId, bookingFixtures.addSchedule(tennisCourtId, day.withHour(9)));
+        ReservationDTO cancelled = bookingFixtures.book(guestId, bookingFixtures.addSchedule(tennisCourtId, day.withHour(10)));
+        reservationService.cancelReservation(cancelled.getId());
+        ReservationDTO lastMinute = bookingFixtures.book(guestId, bookingFixtures.addSchedule(tennisCourtId, day.withHour(23).withMinute(30)));
+        bookingFixtures.book(guestId, bookingFixtures.addSchedule(tennisCourtId, day.plusDays(1)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = reservationExporter.export(day, day.plusDays(1), output);
+
+        List<String> lines = new BufferedReader(new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())), StandardCharsets.UTF_8))
+                .lines().collect(Collectors.toList());
+        Assert.assertEquals(3, rows);
+        Assert.assertEquals(4, lines.size());
+        Assert.assertEquals(ReservationExporter.HEADER, lines.get(0));
+        Assert.assertEquals(first.getId() + ",READY_TO_PLAY," + first.getSchedule().getId() + "," + tennisCourtId + ","
+                + day.withHour(9) + ":00," + day.withHour(10) + ":00," + guestId + "," + first.getValue().setScale(2).toPlainString() + ",", lines.get(1));
+        Assert.assertTrue(lines.get(2).startsWith(cancelled.getId() + ",CANCELLED,"));
+        // a schedule starting in the last minute of the range is exported, one starting as it ends is not
+        Assert.assertTrue(lines.get(3).startsWith(lastMinute.getId() + ",READY_TO_PLAY,"));
+    }
+}
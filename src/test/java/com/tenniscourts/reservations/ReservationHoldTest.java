@@ -0,0 +1,136 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.BookingFixtures;
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.schedules.CourtAvailabilityIndex;
+import com.tenniscourts.waitlists.CreateWaitlistEntryRequestDTO;
+import com.tenniscourts.waitlists.WaitlistEntryDTO;
+import com.tenniscourts.waitlists.WaitlistService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.outbox.relay-enabled=false"})
+@Import(BookingFixtures.class)
+public class ReservationHoldTest {
+
+    @Autowired
+    BookingFixtures bookingFixtures;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    HoldLeases holdLeases;
+
+    @Autowired
+    HoldReaper holdReaper;
+
+    @Autowired
+    WaitlistService waitlistService;
+
+    @Autowired
+    CourtAvailabilityIndex courtAvailabilityIndex;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    public void heldSlotsAreTakenUntilConfirmed() {
+        Long tennisCourtId = bookingFixtures.addTennisCourt("Hold Court");
+        LocalDateTime startDateTime = LocalDateTime.now().plusDays(3).withNano(0);
+        Long scheduleId = bookingFixtures.addSchedule(tennisCourtId, startDateTime);
+
+        ReservationDTO held = this.hold(bookingFixtures.addGuest("Paying"), scheduleId);
+        Assert.assertEquals(ReservationStatus.HELD.name(), held.getReservationStatus());
+        Assert.assertNotNull(held.getHoldExpiresAt());
+        Assert.assertTrue(courtAvailabilityIndex.findFreeSlots(tennisCourtId, startDateTime, startDateTime.plusHours(1)).isEmpty());
+        try {
+            reservationService.bookReservation(CreateReservationRequestDTO.builder().guestId(bookingFixtures.addGuest("Too Late")).scheduleId(scheduleId).build());
+            Assert.fail();
+        } catch (AlreadyExistsEntityException e) {
+            // the slot is held
+        }
+
+        ReservationDTO confirmed = reservationService.confirmReservation(held.getId());
+
+        Assert.assertEquals(ReservationStatus.READY_TO_PLAY.name(), confirmed.getReservationStatus());
+        Assert.assertNull(confirmed.getHoldExpiresAt());
+        try {
+            reservationService.confirmReservation(held.getId());
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // confirmed once
+        }
+    }
+
+    @Test
+    public void expiredHoldsReleaseTheirSlotsToTheWaitlist() {
+        Long tennisCourtId = bookingFixtures.addTennisCourt("Expiry Court");
+        Long scheduleId = bookingFixtures.addSchedule(tennisCourtId, LocalDateTime.now().plusDays(3).withNano(0));
+        Long waitingId = bookingFixtures.addGuest("Waiting");
+
+        ReservationDTO held = this.hold(bookingFixtures.addGuest("Abandoning"), scheduleId);
+        WaitlistEntryDTO waiting = waitlistService.joinWaitlist(CreateWaitlistEntryRequestDTO.builder().guestId(waitingId).scheduleId(scheduleId).build());
+
+        LocalDateTime expired = LocalDateTime.now().minusSeconds(1);
+        transactionTemplate.execute(status -> {
+            reservationRepository.findById(held.getId()).get().setHoldExpiresAt(expired);
+            return null;
+        });
+        try {
+            reservationService.confirmReservation(held.getId());
+            Assert.fail();
+        } catch (BusinessException e) {
+            // too late to pay
+        }
+
+        holdLeases.add(held.getId(), expired);
+        holdReaper.sweep();
+
+        Assert.assertEquals(ReservationStatus.CANCELLED, reservationRepository.findById(held.getId()).get().getReservationStatus());
+        Reservation promoted = reservationRepository.findById(waitlistService.findWaitlistEntry(waiting.getId()).getReservationId()).get();
+        Assert.assertEquals(waitingId, promoted.getGuest().getId());
+        Assert.assertEquals(ReservationStatus.READY_TO_PLAY, promoted.getReservationStatus());
+        Assert.assertEquals(0, reservationService.expireHolds(Collections.singletonList(held.getId())));
+    }
+
+    @Test
+    public void holdsDrainedBeforeTheirExpiryAreLeasedAgain() throws InterruptedException {
+        Long tennisCourtId = bookingFixtures.addTennisCourt("Early Sweep Court");
+        ReservationDTO held = this.hold(bookingFixtures.addGuest("Still Paying"), bookingFixtures.addSchedule(tennisCourtId, LocalDateTime.now().plusDays(3).withNano(0)));
+
+        // the hold's own lease runs for the whole hold duration, so only a new lease can expire it within the test
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(2);
+        transactionTemplate.execute(status -> {
+            reservationRepository.findById(held.getId()).get().setHoldExpiresAt(expiresAt);
+            return null;
+        });
+        holdLeases.add(held.getId(), LocalDateTime.now().minusSeconds(1));
+        holdReaper.sweep();
+        Assert.assertEquals(ReservationStatus.HELD, reservationRepository.findById(held.getId()).get().getReservationStatus());
+
+        for (int attempt = 0; attempt < 50 && ReservationStatus.HELD.equals(reservationRepository.findById(held.getId()).get().getReservationStatus()); attempt++) {
+            Thread.sleep(200);
+            holdReaper.sweep();
+        }
+        Assert.assertEquals(ReservationStatus.CANCELLED, reservationRepository.findById(held.getId()).get().getReservationStatus());
+    }
+
+    private ReservationDTO hold(Long guestId, Long scheduleId) {
+        return reservationService.holdReservation(CreateReservationRequestDTO.builder().guestId(guestId).scheduleId(scheduleId).build());
+    }
+}
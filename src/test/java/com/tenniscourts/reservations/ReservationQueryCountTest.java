@@ -0,0 +1,178 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.schedules.CreateScheduleRequestDTO;
+import com.tenniscourts.schedules.ScheduleDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import com.tenniscourts.tenniscourts.TennisCourtService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info",
+        "spring.jpa.properties.hibernate.generate_statistics=true", "tennis.outbox.relay-enabled=false"})
+public class ReservationQueryCountTest {
+
+    private static final int RESERVATIONS = 500;
+
+    private static final LocalDateTime START = LocalDateTime.of(2045, 6, 1, 0, 0);
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    ReservationMapper reservationMapper;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    TennisCourtService tennisCourtService;
+
+    @Autowired
+    TennisCourtRepository tennisCourtRepository;
+
+    @Autowired
+    GuestRepository guestRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private static Long tennisCourtId;
+
+    private static Long guestId;
+
+    private static final List<Long> reservationIds = new ArrayList<>();
+
+    private static final List<Long> scheduleIds = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        if (tennisCourtId != null) {
+            return;
+        }
+
+        TennisCourt tennisCourt = tennisCourtRepository.save(new TennisCourt("Query Count Court"));
+        tennisCourtId = tennisCourt.getId();
+        Guest guest = guestRepository.save(Guest.builder().name("Query Count Guest").build());
+        guestId = guest.getId();
+
+        for (int i = 0; i < RESERVATIONS; i++) {
+            CreateScheduleRequestDTO createScheduleRequestDTO = new CreateScheduleRequestDTO();
+            createScheduleRequestDTO.setTennisCourtId(tennisCourtId);
+            createScheduleRequestDTO.setStartDateTime(START.plusHours(i));
+            ScheduleDTO schedule = scheduleService.addSchedule(tennisCourtId, createScheduleRequestDTO);
+            scheduleIds.add(schedule.getId());
+
+            reservationIds.add(reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                    .guestId(guest.getId())
+                    .scheduleId(schedule.getId())
+                    .build()).getId());
+        }
+    }
+
+    @Test
+    public void mappingReservationListCostsOneStatement() {
+        statistics.clear();
+
+        List<ReservationDTO> reservations = new ArrayList<>();
+        reservationRepository.findByReservationStatusAndSchedule_StartDateTimeGreaterThanEqualAndSchedule_EndDateTimeLessThanEqual(
+                ReservationStatus.READY_TO_PLAY, START, START.plusHours(RESERVATIONS))
+                .forEach(reservation -> reservations.add(reservationMapper.map(reservation)));
+
+        Assert.assertEquals(RESERVATIONS, reservations.size());
+        Assert.assertEquals(tennisCourtId, reservations.get(0).getSchedule().getTennisCourt().getId());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findReservationCostsOneStatement() {
+        statistics.clear();
+
+        ReservationDTO reservation = reservationService.findReservation(reservationIds.get(0));
+
+        Assert.assertEquals(tennisCourtId, reservation.getSchedule().getTennisCourt().getId());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void guestHistoryPagesCostOneStatementEach() {
+        statistics.clear();
+
+        List<ReservationSummaryDTO> reservations = new ArrayList<>();
+        ReservationPageDTO page = reservationService.findReservationsByGuest(guestId, ReservationStatus.READY_TO_PLAY, null, null, 200);
+        reservations.addAll(page.getReservations());
+        while (page.getNextId() != null) {
+            page = reservationService.findReservationsByGuest(guestId, ReservationStatus.READY_TO_PLAY, page.getNextStartDateTime(), page.getNextId(), 200);
+            reservations.addAll(page.getReservations());
+        }
+
+        Assert.assertEquals(RESERVATIONS, reservations.size());
+        Assert.assertEquals(reservationIds.get(RESERVATIONS - 1), reservations.get(0).getId());
+        Assert.assertEquals(START, reservations.get(RESERVATIONS - 1).getStartDateTime());
+        Assert.assertEquals(3, statistics.getPrepareStatementCount());
+        Assert.assertTrue(reservationService.findReservationsByGuest(guestId, ReservationStatus.CANCELLED, null, null, 10).getReservations().isEmpty());
+    }
+
+    @Test
+    public void upcomingReservationsOfATennisCourtCostOneStatement() {
+        statistics.clear();
+
+        ReservationPageDTO page = reservationService.findUpcomingReservationsByTennisCourt(tennisCourtId, null, null, 10);
+
+        Assert.assertEquals(10, page.getReservations().size());
+        Assert.assertEquals(reservationIds.get(0), page.getReservations().get(0).getId());
+        Assert.assertEquals(scheduleIds.get(9), page.getNextId());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        Assert.assertEquals(reservationIds.get(10), reservationService.findUpcomingReservationsByTennisCourt(tennisCourtId,
+                page.getNextStartDateTime(), page.getNextId(), 10).getReservations().get(0).getId());
+    }
+
+    @Test
+    public void findScheduleCostsOneStatement() {
+        statistics.clear();
+
+        ScheduleDTO schedule = scheduleService.findSchedule(scheduleIds.get(0));
+
+        Assert.assertEquals(tennisCourtId, schedule.getTennisCourt().getId());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findSchedulesByDatesCostsOneStatement() {
+        statistics.clear();
+
+        Assert.assertEquals(RESERVATIONS, scheduleService.findSchedulesByDates(START, START.plusHours(RESERVATIONS), null, null, RESERVATIONS).getSchedules().size());
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findTennisCourtWithSchedulesCostsTwoStatements() {
+        statistics.clear();
+
+        Assert.assertEquals(RESERVATIONS, tennisCourtService.findTennisCourtWithSchedulesById(tennisCourtId).getTennisCourtSchedules().size());
+        Assert.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,269 @@
+package com.tenniscourts.reservations;
+
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.exceptions.BusinessException;
+import com.tenniscourts.guests.Guest;
+import com.tenniscourts.guests.GuestRepository;
+import com.tenniscourts.schedules.CourtAvailabilityIndex;
+import com.tenniscourts.schedules.Schedule;
+import com.tenniscourts.schedules.ScheduleRepository;
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info"})
+public class ReservationServiceConcurrencyTest {
+
+    private static final int SCHEDULES = 20;
+
+    private static final int GUESTS = 50;
+
+    private static final int BOOKINGS = 4000;
+
+    private static final int THREADS = 32;
+
+    private static final int RESCHEDULES = 2000;
+
+    private static final int CHANGES = 2000;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    ScheduleRepository scheduleRepository;
+
+    @Autowired
+    GuestRepository guestRepository;
+
+    @Autowired
+    TennisCourtRepository tennisCourtRepository;
+
+    @Autowired
+    CourtAvailabilityIndex courtAvailabilityIndex;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void concurrentBookingsLeaveExactlyOneReservationPerSchedule() throws Exception {
+        TennisCourt tennisCourt = tennisCourtRepository.save(new TennisCourt("Concurrency Court"));
+
+        List<Schedule> schedules = new ArrayList<>();
+        LocalDateTime startDateTime = LocalDateTime.now().plusDays(7).withNano(0);
+        for (int i = 0; i < SCHEDULES; i++) {
+            schedules.add(scheduleRepository.save(Schedule.builder()
+                    .tennisCourt(tennisCourt)
+                    .startDateTime(startDateTime.plusHours(i))
+                    .endDateTime(startDateTime.plusHours(i + 1))
+                    .build()));
+        }
+
+        schedules.forEach(courtAvailabilityIndex::addSchedule);
+
+        List<Guest> guests = new ArrayList<>();
+        for (int i = 0; i < GUESTS; i++) {
+            guests.add(guestRepository.save(Guest.builder().name("Guest " + i).build()));
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            CreateReservationRequestDTO request = CreateReservationRequestDTO.builder()
+                    .scheduleId(schedules.get(i % SCHEDULES).getId())
+                    .guestId(guests.get(i % GUESTS).getId())
+                    .build();
+
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    reservationService.bookReservation(request);
+                    booked.incrementAndGet();
+                } catch (AlreadyExistsEntityException | BusinessException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assert.assertEquals(SCHEDULES, booked.get());
+        Assert.assertEquals(BOOKINGS - SCHEDULES, rejected.get());
+
+        for (Schedule schedule : schedules) {
+            Assert.assertEquals(1, reservationRepository.findBySchedule_Id(schedule.getId()).stream()
+                    .filter(reservation -> ReservationStatus.READY_TO_PLAY.equals(reservation.getReservationStatus()))
+                    .count());
+        }
+        Assert.assertTrue(courtAvailabilityIndex.findFreeSlots(tennisCourt.getId(), startDateTime, startDateTime.plusHours(SCHEDULES)).isEmpty());
+    }
+
+    @Test
+    public void concurrentReschedulesBetweenTwoSlotsKeepOneLiveReservation() throws Exception {
+        TennisCourt tennisCourt = tennisCourtRepository.save(new TennisCourt("Reschedule Court"));
+        LocalDateTime startDateTime = LocalDateTime.now().plusDays(14).withNano(0);
+        Schedule first = scheduleRepository.save(Schedule.builder().tennisCourt(tennisCourt)
+                .startDateTime(startDateTime).endDateTime(startDateTime.plusHours(1)).build());
+        Schedule second = scheduleRepository.save(Schedule.builder().tennisCourt(tennisCourt)
+                .startDateTime(startDateTime.plusHours(1)).endDateTime(startDateTime.plusHours(2)).build());
+        courtAvailabilityIndex.addSchedule(first);
+        courtAvailabilityIndex.addSchedule(second);
+
+        Guest guest = guestRepository.save(Guest.builder().name("Rescheduling Guest").build());
+        ReservationDTO booked = reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                .scheduleId(first.getId())
+                .guestId(guest.getId())
+                .build());
+        AtomicReference<ReservationDTO> current = new AtomicReference<>(booked);
+        double refundsBefore = this.countRefunds();
+
+        AtomicInteger rescheduled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < RESCHEDULES; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ReservationDTO reservation = current.get();
+                Long target = first.getId().equals(reservation.getSchedule().getId()) ? second.getId() : first.getId();
+                try {
+                    current.set(reservationService.rescheduleReservation(reservation.getId(), target));
+                    rescheduled.incrementAndGet();
+                } catch (IllegalArgumentException | AlreadyExistsEntityException | BusinessException e) {
+                    // lost the race: the reservation was already moved or the target is taken
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assert.assertTrue(rescheduled.get() > 0);
+        List<Reservation> reservations = new ArrayList<>(reservationRepository.findBySchedule_Id(first.getId()));
+        reservations.addAll(reservationRepository.findBySchedule_Id(second.getId()));
+        Assert.assertEquals(rescheduled.get() + 1, reservations.size());
+        Assert.assertEquals(1, reservations.stream()
+                .filter(reservation -> ReservationStatus.READY_TO_PLAY.equals(reservation.getReservationStatus()))
+                .count());
+        Assert.assertEquals(rescheduled.get(), reservations.stream()
+                .filter(reservation -> ReservationStatus.RESCHEDULED.equals(reservation.getReservationStatus()))
+                .count());
+        Assert.assertEquals(1, courtAvailabilityIndex.findFreeSlots(tennisCourt.getId(), startDateTime, startDateTime.plusHours(2)).size());
+        // attempts rolled back by a conflict are not counted
+        Assert.assertEquals(rescheduled.get(), this.countRefunds() - refundsBefore, 0);
+    }
+
+    @Test
+    public void availabilityIndexMatchesTheDatabaseAfterConcurrentChangesAndRebuilds() throws Exception {
+        TennisCourt tennisCourt = tennisCourtRepository.save(new TennisCourt("Rebuild Court"));
+        LocalDateTime startDateTime = LocalDateTime.now().plusDays(21).withNano(0);
+        List<Schedule> schedules = new ArrayList<>();
+        for (int i = 0; i < SCHEDULES; i++) {
+            schedules.add(scheduleRepository.save(Schedule.builder().tennisCourt(tennisCourt)
+                    .startDateTime(startDateTime.plusHours(i)).endDateTime(startDateTime.plusHours(i + 1)).build()));
+        }
+        schedules.forEach(courtAvailabilityIndex::addSchedule);
+        Guest guest = guestRepository.save(Guest.builder().name("Rebuild Guest").build());
+
+        List<Long> reservationIds = new ArrayList<>();
+        for (int i = 0; i < SCHEDULES; i += 2) {
+            reservationIds.add(reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                    .scheduleId(schedules.get(i).getId()).guestId(guest.getId()).build()).getId());
+        }
+        List<Long> liveReservationIds = new CopyOnWriteArrayList<>(reservationIds);
+
+        AtomicBoolean changing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        Future<?> rebuilds = executor.submit(() -> {
+            start.await();
+            while (changing.get()) {
+                courtAvailabilityIndex.rebuild();
+            }
+            return null;
+        });
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CHANGES; i++) {
+            Random random = new Random(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                Long scheduleId = schedules.get(random.nextInt(SCHEDULES)).getId();
+                Long reservationId = liveReservationIds.get(random.nextInt(liveReservationIds.size()));
+                try {
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            liveReservationIds.add(reservationService.bookReservation(CreateReservationRequestDTO.builder()
+                                    .scheduleId(scheduleId).guestId(guest.getId()).build()).getId());
+                            break;
+                        case 1:
+                            reservationService.cancelReservation(reservationId);
+                            break;
+                        default:
+                            liveReservationIds.add(reservationService.rescheduleReservation(reservationId, scheduleId).getId());
+                    }
+                } catch (IllegalArgumentException | AlreadyExistsEntityException | BusinessException e) {
+                    // lost the race: the slot is taken or the reservation was already cancelled or moved
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        changing.set(false);
+        rebuilds.get();
+        executor.shutdown();
+
+        List<Long> freeScheduleIds = schedules.stream()
+                .map(Schedule::getId)
+                .filter(scheduleId -> !reservationRepository.existsBySchedule_IdAndReservationStatusIn(scheduleId, ReservationStatus.TAKING_SLOT))
+                .collect(Collectors.toList());
+        Assert.assertEquals(freeScheduleIds, courtAvailabilityIndex.findFreeSlots(tennisCourt.getId(), startDateTime, startDateTime.plusHours(SCHEDULES))
+                .stream().map(CourtAvailabilityIndex.Slot::getScheduleId).collect(Collectors.toList()));
+    }
+
+    private double countRefunds() {
+        return meterRegistry.find("tennis.reservations.refunds").counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
@@ -1,5 +1,7 @@
 package com.tenniscourts.reservations;
 
+import com.tenniscourts.pricing.PricingEngine;
+import com.tenniscourts.pricing.PricingRules;
 import com.tenniscourts.schedules.Schedule;
 import org.junit.Assert;
 import org.junit.FixMethodOrder;
@@ -7,6 +9,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.MethodSorters;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
@@ -20,6 +23,9 @@ import java.time.LocalDateTime;
 @ContextConfiguration(classes = ReservationService.class)
 public class ReservationServiceTest {
 
+    @Spy
+    PricingEngine pricingEngine = new PricingEngine(new PricingRules());
+
     @InjectMocks
     ReservationService reservationService;
 
@@ -0,0 +1,95 @@
+package com.tenniscourts.schedules;
+
+import com.tenniscourts.reservations.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.tenniscourts.schedules.ScheduleFixtures.START;
+import static com.tenniscourts.schedules.ScheduleFixtures.schedule;
+import static org.mockito.Mockito.mock;
+
+public class AvailabilitySearchServiceTest {
+
+    CourtAvailabilityIndex courtAvailabilityIndex;
+
+    AvailabilitySearchService availabilitySearchService;
+
+    @Before
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        courtAvailabilityIndex = new CourtAvailabilityIndex(mock(ScheduleRepository.class), mock(ReservationRepository.class),
+                meterRegistry, mock(SlotAvailabilityFeed.class));
+
+        AvailabilitySearchProperties properties = new AvailabilitySearchProperties();
+        properties.setParallelism(2);
+        properties.setPartitionSize(1);
+        availabilitySearchService = new AvailabilitySearchService(courtAvailabilityIndex, new ScheduleMetrics(meterRegistry), properties, meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        availabilitySearchService.destroy();
+    }
+
+    @Test
+    public void findsRunsOfBackToBackFreeSlotsAcrossCourtsInStartOrder() {
+        courtAvailabilityIndex.addSchedules(Arrays.asList(
+                schedule(1L, 1L, 0), schedule(2L, 1L, 1), schedule(3L, 1L, 2), schedule(4L, 1L, 3),
+                schedule(5L, 2L, 1), schedule(6L, 2L, 2),
+                schedule(7L, 3L, 0), schedule(8L, 3L, 2)));
+        courtAvailabilityIndex.markBooked(3L, 10L);
+
+        AvailabilitySearchResultDTO result = availabilitySearchService.findFreeSlots(START, START.plusHours(4), Duration.ofHours(2), null, 10);
+
+        Assert.assertEquals(3, result.getSearchedTennisCourts());
+        Assert.assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(5L, 6L)), scheduleIds(result));
+        Assert.assertEquals(Arrays.asList(1L, 2L), result.getSlots().stream().map(AvailableSlotDTO::getTennisCourtId).collect(Collectors.toList()));
+        Assert.assertEquals(START.plusHours(3), result.getSlots().get(1).getEndDateTime());
+    }
+
+    @Test
+    public void searchesOnlyTheGivenCourtsUpToTheSize() {
+        courtAvailabilityIndex.addSchedules(Arrays.asList(
+                schedule(1L, 1L, 0), schedule(2L, 1L, 1), schedule(3L, 1L, 2),
+                schedule(4L, 2L, 0), schedule(5L, 3L, 0)));
+
+        AvailabilitySearchResultDTO result = availabilitySearchService.findFreeSlots(START, START.plusHours(3), Duration.ofMinutes(30),
+                Arrays.asList(1L, 3L, 1L), 3);
+
+        Assert.assertEquals(2, result.getSearchedTennisCourts());
+        Assert.assertEquals(Arrays.asList(Collections.singletonList(1L), Collections.singletonList(5L), Collections.singletonList(2L)), scheduleIds(result));
+    }
+
+    @Test
+    public void searchesOnlyFromNowOn() {
+        LocalDateTime today = LocalDateTime.now().plusHours(1).withMinute(0).withSecond(0).withNano(0);
+        courtAvailabilityIndex.addSchedules(Arrays.asList(
+                schedule(1L, 1L, today.minusHours(3)), schedule(2L, 1L, today.minusHours(2)), schedule(3L, 1L, today)));
+
+        AvailabilitySearchResultDTO result = availabilitySearchService.findFreeSlots(today.minusHours(3), today.plusHours(1), Duration.ofHours(1), null, 10);
+
+        Assert.assertEquals(Collections.singletonList(Collections.singletonList(3L)), scheduleIds(result));
+        Assert.assertTrue(availabilitySearchService.findFreeSlots(today.minusHours(3), today.minusHours(1), Duration.ofHours(1), null, 10)
+                .getSlots().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void windowMustEndAfterItStarts() {
+        availabilitySearchService.findFreeSlots(START, START, Duration.ofHours(1), null, 10);
+    }
+
+    private static List<List<Long>> scheduleIds(AvailabilitySearchResultDTO result) {
+        return result.getSlots().stream().map(AvailableSlotDTO::getScheduleIds).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,140 @@
+package com.tenniscourts.schedules;
+
+import com.tenniscourts.reservations.ReservationRepository;
+import com.tenniscourts.reservations.ReservationStatus;
+import com.tenniscourts.reservations.ScheduleBooking;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.tenniscourts.schedules.ScheduleFixtures.START;
+import static com.tenniscourts.schedules.ScheduleFixtures.schedule;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CourtAvailabilityIndexTest {
+
+    @Mock
+    ScheduleRepository scheduleRepository;
+
+    @Mock
+    ReservationRepository reservationRepository;
+
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    SlotAvailabilityFeed slotAvailabilityFeed;
+
+    @InjectMocks
+    CourtAvailabilityIndex courtAvailabilityIndex;
+
+    @Test
+    public void rebuildMarksReservedSchedulesAsTaken() {
+        when(scheduleRepository.findAll()).thenReturn(Arrays.asList(schedule(1L, 1L, 0), schedule(2L, 1L, 1), schedule(3L, 2L, 0)));
+        when(reservationRepository.findScheduleBookingsByReservationStatusIn(ReservationStatus.TAKING_SLOT))
+                .thenReturn(Arrays.asList(new ScheduleBooking(1L, 10L), new ScheduleBooking(3L, 11L)));
+
+        courtAvailabilityIndex.rebuild();
+
+        Assert.assertEquals(Collections.singletonList(2L), scheduleIds(1L, START, START.plusHours(4)));
+        Assert.assertEquals(Collections.singletonList(1L), courtAvailabilityIndex.findFreeTennisCourtIds(START, START.plusHours(4)));
+    }
+
+    @Test
+    public void findFreeSlotsOnlyReturnsSlotsWithinWindow() {
+        courtAvailabilityIndex.addSchedule(schedule(1L, 1L, 0));
+        courtAvailabilityIndex.addSchedule(schedule(2L, 1L, 1));
+        courtAvailabilityIndex.addSchedule(schedule(3L, 1L, 2));
+
+        Assert.assertEquals(Arrays.asList(2L), scheduleIds(1L, START.plusHours(1), START.plusHours(2)));
+        Assert.assertEquals(Arrays.asList(1L, 2L), scheduleIds(1L, START, START.plusMinutes(150)));
+        Assert.assertTrue(scheduleIds(2L, START, START.plusHours(3)).isEmpty());
+    }
+
+    @Test
+    public void bookAndCancelToggleAvailability() {
+        courtAvailabilityIndex.addSchedule(schedule(1L, 1L, 0));
+
+        courtAvailabilityIndex.markBooked(1L, 10L);
+        Assert.assertTrue(courtAvailabilityIndex.findFreeTennisCourtIds(START, START.plusHours(1)).isEmpty());
+
+        courtAvailabilityIndex.markFree(1L, 10L);
+        Assert.assertEquals(Collections.singletonList(1L), courtAvailabilityIndex.findFreeTennisCourtIds(START, START.plusHours(1)));
+
+        ArgumentCaptor<SlotAvailabilityChangeDTO> changes = ArgumentCaptor.forClass(SlotAvailabilityChangeDTO.class);
+        verify(slotAvailabilityFeed, times(3)).publish(changes.capture());
+        Assert.assertEquals(Arrays.asList(SlotAvailabilityChangeDTO.Change.ADDED, SlotAvailabilityChangeDTO.Change.BOOKED, SlotAvailabilityChangeDTO.Change.FREED),
+                changes.getAllValues().stream().map(SlotAvailabilityChangeDTO::getChange).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void closedSlotsStayTakenWhenTheirReservationIsCancelled() {
+        courtAvailabilityIndex.addSchedule(schedule(1L, 1L, 0));
+        courtAvailabilityIndex.markBooked(1L, 10L);
+
+        courtAvailabilityIndex.markClosed(Collections.singletonList(1L));
+        courtAvailabilityIndex.markFree(1L, 10L);
+
+        Assert.assertTrue(courtAvailabilityIndex.findFreeTennisCourtIds(START, START.plusHours(1)).isEmpty());
+        ArgumentCaptor<SlotAvailabilityChangeDTO> changes = ArgumentCaptor.forClass(SlotAvailabilityChangeDTO.class);
+        verify(slotAvailabilityFeed, times(3)).publish(changes.capture());
+        Assert.assertEquals(Arrays.asList(SlotAvailabilityChangeDTO.Change.ADDED, SlotAvailabilityChangeDTO.Change.BOOKED, SlotAvailabilityChangeDTO.Change.CLOSED),
+                changes.getAllValues().stream().map(SlotAvailabilityChangeDTO::getChange).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void lateBookingOfACancelledReservationDoesNotTakeTheSlot() {
+        courtAvailabilityIndex.addSchedule(schedule(1L, 1L, 0));
+
+        courtAvailabilityIndex.markFree(1L, 10L);
+        courtAvailabilityIndex.markBooked(1L, 10L);
+        courtAvailabilityIndex.markBooked(1L, 11L);
+        courtAvailabilityIndex.markBooked(1L, 11L);
+        courtAvailabilityIndex.markFree(1L, 11L);
+
+        Assert.assertEquals(Collections.singletonList(1L), scheduleIds(1L, START, START.plusHours(1)));
+    }
+
+    @Test
+    public void changesCommittedDuringARebuildAreReplayedOntoTheNewViewOnce() {
+        when(scheduleRepository.findAll())
+                .thenReturn(Collections.singletonList(schedule(1L, 1L, 0)))
+                .thenAnswer(invocation -> {
+                    courtAvailabilityIndex.markBooked(1L, 10L);
+                    Assert.assertTrue("searches keep using the current view", scheduleIds(1L, START, START.plusHours(1)).isEmpty());
+                    return Collections.singletonList(schedule(1L, 1L, 0));
+                });
+        when(reservationRepository.findScheduleBookingsByReservationStatusIn(ReservationStatus.TAKING_SLOT))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(new ScheduleBooking(1L, 10L)));
+        courtAvailabilityIndex.rebuild();
+
+        courtAvailabilityIndex.rebuild();
+
+        Assert.assertTrue(scheduleIds(1L, START, START.plusHours(1)).isEmpty());
+        courtAvailabilityIndex.markFree(1L, 10L);
+        Assert.assertEquals(Collections.singletonList(1L), scheduleIds(1L, START, START.plusHours(1)));
+    }
+
+    private List<Long> scheduleIds(Long tennisCourtId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return courtAvailabilityIndex.findFreeSlots(tennisCourtId, startDateTime, endDateTime).stream()
+                .map(CourtAvailabilityIndex.Slot::getScheduleId)
+                .collect(Collectors.toList());
+    }
+}
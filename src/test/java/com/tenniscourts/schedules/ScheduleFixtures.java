@@ -0,0 +1,33 @@
+package com.tenniscourts.schedules;
+
+import com.tenniscourts.tenniscourts.TennisCourt;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detached one-hour schedules for the tests of the in-memory availability, which never touch the database.
+ */
+final class ScheduleFixtures {
+
+    static final LocalDateTime START = LocalDateTime.of(2030, 1, 5, 10, 0);
+
+    private ScheduleFixtures() {
+    }
+
+    static Schedule schedule(Long id, Long tennisCourtId, int hoursFromStart) {
+        return schedule(id, tennisCourtId, START.plusHours(hoursFromStart));
+    }
+
+    static Schedule schedule(Long id, Long tennisCourtId, LocalDateTime startDateTime) {
+        TennisCourt tennisCourt = new TennisCourt();
+        tennisCourt.setId(tennisCourtId);
+
+        Schedule schedule = Schedule.builder()
+                .tennisCourt(tennisCourt)
+                .startDateTime(startDateTime)
+                .endDateTime(startDateTime.plusHours(1))
+                .build();
+        schedule.setId(id);
+        return schedule;
+    }
+}
@@ -0,0 +1,101 @@
+package com.tenniscourts.schedules;
+
+import com.tenniscourts.tenniscourts.TennisCourt;
+import com.tenniscourts.tenniscourts.TennisCourtRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class ScheduleServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2040, 3, 1, 8, 0);
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    TennisCourtRepository tennisCourtRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void findSchedulesByDatesWalksAllPagesInStreamOrder() {
+        List<Long> created = new ArrayList<>();
+        for (String name : new String[]{"Paging Court A", "Paging Court B"}) {
+            TennisCourt tennisCourt = tennisCourtRepository.save(new TennisCourt(name));
+            for (int i = 0; i < 12; i++) {
+                CreateScheduleRequestDTO request = new CreateScheduleRequestDTO();
+                request.setTennisCourtId(tennisCourt.getId());
+                request.setStartDateTime(START.plusHours(i));
+                created.add(scheduleService.addSchedule(tennisCourt.getId(), request).getId());
+            }
+        }
+
+        List<Long> streamed = new ArrayList<>();
+        scheduleService.streamSchedulesByDates(START, START.plusDays(1), schedule -> streamed.add(schedule.getId()));
+
+        List<Long> paged = new ArrayList<>();
+        int pages = 0;
+        SchedulePageDTO page = scheduleService.findSchedulesByDates(START, START.plusDays(1), null, null, 10);
+        while (true) {
+            pages++;
+            page.getSchedules().forEach(schedule -> paged.add(schedule.getId()));
+            if (page.getNextId() == null) {
+                break;
+            }
+            page = scheduleService.findSchedulesByDates(START, START.plusDays(1), page.getNextStartDateTime(), page.getNextId(), 10);
+        }
+
+        Assert.assertEquals(3, pages);
+        Assert.assertEquals(created.size(), streamed.size());
+        Assert.assertTrue(streamed.containsAll(created));
+        Assert.assertEquals(streamed, paged);
+    }
+
+    @Test
+    public void addSchedulesInsertsRecurringSlotsInBatchesAndSkipsExistingOnes() {
+        Long firstCourtId = tennisCourtRepository.save(new TennisCourt("Recurring Court A")).getId();
+        Long secondCourtId = tennisCourtRepository.save(new TennisCourt("Recurring Court B")).getId();
+        CreateRecurringSchedulesRequestDTO request = CreateRecurringSchedulesRequestDTO.builder()
+                .tennisCourtIds(Arrays.asList(firstCourtId, secondCourtId))
+                .startDate(LocalDate.of(2041, 5, 1))
+                .endDate(LocalDate.of(2041, 5, 5))
+                .openingTime(LocalTime.of(8, 0))
+                .closingTime(LocalTime.of(20, 30))
+                .build();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RecurringSchedulesResultDTO created = scheduleService.addSchedules(request);
+
+        Assert.assertEquals(2 * 5 * 12, created.getCreatedSchedules());
+        Assert.assertEquals(0, created.getSkippedSchedules());
+        Assert.assertEquals(2 * 5 * 12, statistics.getEntityInsertCount());
+        Assert.assertTrue(statistics.getPrepareStatementCount() < 15);
+
+        RecurringSchedulesResultDTO repeated = scheduleService.addSchedules(request);
+
+        Assert.assertEquals(0, repeated.getCreatedSchedules());
+        Assert.assertEquals(2 * 5 * 12, repeated.getSkippedSchedules());
+        Assert.assertEquals(12, scheduleService.findSchedulesByDates(LocalDateTime.of(2041, 5, 3, 0, 0), LocalDateTime.of(2041, 5, 3, 23, 59), null, null, 100)
+                .getSchedules().stream().filter(schedule -> schedule.getTennisCourt().getId().equals(firstCourtId)).count());
+    }
+}
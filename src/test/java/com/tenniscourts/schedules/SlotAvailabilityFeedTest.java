@@ -0,0 +1,164 @@
+package com.tenniscourts.schedules;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.tenniscourts.schedules.ScheduleFixtures.START;
+
+public class SlotAvailabilityFeedTest {
+
+    private static final int SUBSCRIBERS = 5000;
+
+    private final SlotAvailabilityFeed slotAvailabilityFeed = new SlotAvailabilityFeed(new SimpleMeterRegistry());
+
+    @After
+    public void tearDown() {
+        slotAvailabilityFeed.destroy();
+    }
+
+    @Test
+    public void changesReachOnlyMatchingSubscribers() throws Exception {
+        List<RecordingEmitter> courtOne = new ArrayList<>();
+        List<RecordingEmitter> courtTwo = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            RecordingEmitter emitter = new RecordingEmitter(1);
+            slotAvailabilityFeed.register(emitter, i % 2 == 0 ? 1L : 2L, null, null);
+            (i % 2 == 0 ? courtOne : courtTwo).add(emitter);
+        }
+        RecordingEmitter allCourts = new RecordingEmitter(1);
+        slotAvailabilityFeed.register(allCourts, null, null, null);
+        RecordingEmitter outOfRange = new RecordingEmitter(1);
+        slotAvailabilityFeed.register(outOfRange, 1L, START.plusDays(1), START.plusDays(2));
+
+        slotAvailabilityFeed.publish(change(1L, 1L, SlotAvailabilityChangeDTO.Change.BOOKED));
+
+        for (RecordingEmitter emitter : courtOne) {
+            Assert.assertTrue(emitter.received.await(10, TimeUnit.SECONDS));
+        }
+        Assert.assertTrue(allCourts.received.await(10, TimeUnit.SECONDS));
+        for (RecordingEmitter emitter : courtTwo) {
+            Assert.assertEquals(0, emitter.sent.size());
+        }
+        Assert.assertEquals(0, outOfRange.sent.size());
+    }
+
+    @Test
+    public void slowSubscriberDoesNotBlockPublishingAndIsEvictedOnOverflow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new BlockingEmitter(release);
+        slotAvailabilityFeed.register(slow, 1L, null, null);
+
+        long start = System.nanoTime();
+        for (long scheduleId = 0; scheduleId < SlotAvailabilityFeed.BUFFER_SIZE * 4; scheduleId++) {
+            slotAvailabilityFeed.publish(change(scheduleId, 1L, SlotAvailabilityChangeDTO.Change.ADDED));
+        }
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+
+        release.countDown();
+        Assert.assertTrue(slow.completed.await(10, TimeUnit.SECONDS));
+        synchronized (slow.sent) {
+            // only the change in flight when the send blocked
+            Assert.assertEquals(1, slow.sent.size());
+        }
+    }
+
+    @Test
+    public void stalledSubscribersAreEvictedAndDoNotStarveTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<RecordingEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < SlotAvailabilityFeed.DISPATCHER_THREADS; i++) {
+            RecordingEmitter emitter = new BlockingEmitter(release);
+            slotAvailabilityFeed.register(emitter, 1L, null, null);
+            stalled.add(emitter);
+        }
+        slotAvailabilityFeed.publish(change(1L, 1L, SlotAvailabilityChangeDTO.Change.BOOKED));
+        for (RecordingEmitter emitter : stalled) {
+            Assert.assertTrue(((BlockingEmitter) emitter).sending.await(10, TimeUnit.SECONDS));
+        }
+
+        RecordingEmitter healthy = new RecordingEmitter(1);
+        slotAvailabilityFeed.register(healthy, 1L, null, null);
+        slotAvailabilityFeed.publish(change(2L, 1L, SlotAvailabilityChangeDTO.Change.BOOKED));
+        Assert.assertFalse(healthy.received.await(200, TimeUnit.MILLISECONDS));
+
+        slotAvailabilityFeed.evictStalled(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SlotAvailabilityFeed.SEND_TIMEOUT_MILLIS + 1));
+
+        Assert.assertTrue(healthy.received.await(10, TimeUnit.SECONDS));
+        release.countDown();
+        for (RecordingEmitter emitter : stalled) {
+            Assert.assertTrue(emitter.completed.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static SlotAvailabilityChangeDTO change(Long scheduleId, Long tennisCourtId, SlotAvailabilityChangeDTO.Change change) {
+        return SlotAvailabilityChangeDTO.builder()
+                .change(change)
+                .scheduleId(scheduleId)
+                .tennisCourtId(tennisCourtId)
+                .startDateTime(START)
+                .endDateTime(START.plusHours(1))
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<String> sent = new ArrayList<>();
+
+        final CountDownLatch received;
+
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(int expectedEvents) {
+            received = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData() instanceof SlotAvailabilityChangeDTO
+                    ? "{\"scheduleId\":" + ((SlotAvailabilityChangeDTO) part.getData()).getScheduleId() + "}"
+                    : part.getData()));
+            synchronized (sent) {
+                sent.add(event.toString());
+            }
+            received.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    private static class BlockingEmitter extends RecordingEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        private final CountDownLatch release;
+
+        BlockingEmitter(CountDownLatch release) {
+            super(1);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(builder);
+        }
+    }
+}
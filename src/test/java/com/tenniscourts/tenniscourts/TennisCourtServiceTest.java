@@ -0,0 +1,75 @@
+package com.tenniscourts.tenniscourts;
+
+import com.tenniscourts.config.cache.CacheConfig;
+import com.tenniscourts.reservations.CreateReservationRequestDTO;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.schedules.CreateScheduleRequestDTO;
+import com.tenniscourts.schedules.ScheduleDTO;
+import com.tenniscourts.schedules.ScheduleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info"})
+public class TennisCourtServiceTest {
+
+    @Autowired
+    TennisCourtService tennisCourtService;
+
+    @Autowired
+    ScheduleService scheduleService;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void findTennisCourtByIdIsServedFromCache() {
+        Long tennisCourtId = tennisCourtService.addTennisCourt(TennisCourtDTO.builder().name("Cached Court").build()).getId();
+        double hits = cacheGets("hit");
+
+        TennisCourtDTO first = tennisCourtService.findTennisCourtById(tennisCourtId);
+        TennisCourtDTO second = tennisCourtService.findTennisCourtById(tennisCourtId);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals("Cached Court", second.getName());
+        Assert.assertEquals(hits + 2, cacheGets("hit"), 0);
+    }
+
+    @Test
+    public void scheduleAndReservationChangesEvictCourtWithSchedules() {
+        Long tennisCourtId = tennisCourtService.addTennisCourt(TennisCourtDTO.builder().name("Evicted Court").build()).getId();
+        Assert.assertTrue(tennisCourtService.findTennisCourtWithSchedulesById(tennisCourtId).getTennisCourtSchedules().isEmpty());
+        Assert.assertNotNull(cacheManager.getCache(CacheConfig.TENNIS_COURT_SCHEDULES).get(tennisCourtId));
+
+        CreateScheduleRequestDTO request = new CreateScheduleRequestDTO();
+        request.setTennisCourtId(tennisCourtId);
+        request.setStartDateTime(LocalDateTime.now().plusDays(3).withNano(0));
+        ScheduleDTO schedule = scheduleService.addSchedule(tennisCourtId, request);
+
+        Assert.assertNull(cacheManager.getCache(CacheConfig.TENNIS_COURT_SCHEDULES).get(tennisCourtId));
+        Assert.assertEquals(1, tennisCourtService.findTennisCourtWithSchedulesById(tennisCourtId).getTennisCourtSchedules().size());
+        Assert.assertNull(tennisCourtService.findTennisCourtById(tennisCourtId).getTennisCourtSchedules());
+
+        reservationService.bookReservation(CreateReservationRequestDTO.builder().guestId(1L).scheduleId(schedule.getId()).build());
+
+        Assert.assertNull(cacheManager.getCache(CacheConfig.TENNIS_COURT_SCHEDULES).get(tennisCourtId));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", CacheConfig.TENNIS_COURTS).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.tenniscourts.waitlists;
+
+import com.tenniscourts.BookingFixtures;
+import com.tenniscourts.exceptions.AlreadyExistsEntityException;
+import com.tenniscourts.reservations.Reservation;
+import com.tenniscourts.reservations.ReservationDTO;
+import com.tenniscourts.reservations.ReservationRepository;
+import com.tenniscourts.reservations.ReservationService;
+import com.tenniscourts.reservations.ReservationStatus;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.type=info", "tennis.outbox.relay-enabled=false"})
+@Import(BookingFixtures.class)
+public class WaitlistServiceTest {
+
+    @Autowired
+    BookingFixtures bookingFixtures;
+
+    @Autowired
+    WaitlistService waitlistService;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Test
+    public void freedSlotsGoToTheWaitingGuestsInJoiningOrder() {
+        Long tennisCourtId = bookingFixtures.addTennisCourt("Waitlist Court");
+        Long scheduleId = bookingFixtures.addSchedule(tennisCourtId, LocalDateTime.now().plusDays(3).withNano(0));
+        Long otherScheduleId = bookingFixtures.addSchedule(tennisCourtId, LocalDateTime.now().plusDays(4).withNano(0));
+        Long holderId = bookingFixtures.addGuest("Holder");
+        Long firstId = bookingFixtures.addGuest("First In Line");
+        Long secondId = bookingFixtures.addGuest("Second In Line");
+
+        ReservationDTO held = bookingFixtures.book(holderId, scheduleId);
+        WaitlistEntryDTO first = this.join(firstId, scheduleId);
+        WaitlistEntryDTO second = this.join(secondId, scheduleId);
+        Assert.assertEquals(1, first.getPosition());
+        Assert.assertEquals(2, second.getPosition());
+
+        reservationService.cancelReservation(held.getId());
+
+        WaitlistEntryDTO promoted = waitlistService.findWaitlistEntry(first.getId());
+        Assert.assertEquals(WaitlistStatus.PROMOTED.name(), promoted.getStatus());
+        Assert.assertEquals(0, promoted.getPosition());
+        Reservation firstReservation = reservationRepository.findById(promoted.getReservationId()).get();
+        Assert.assertEquals(firstId, firstReservation.getGuest().getId());
+        Assert.assertEquals(ReservationStatus.READY_TO_PLAY, firstReservation.getReservationStatus());
+        Assert.assertEquals(1, waitlistService.findWaitlistEntry(second.getId()).getPosition());
+
+        reservationService.rescheduleReservation(firstReservation.getId(), otherScheduleId);
+
+        Reservation secondReservation = reservationRepository.findById(waitlistService.findWaitlistEntry(second.getId()).getReservationId()).get();
+        Assert.assertEquals(secondId, secondReservation.getGuest().getId());
+        Assert.assertEquals(scheduleId, secondReservation.getSchedule().getId());
+    }
+
+    @Test
+    public void withdrawnGuestsArePassedOver() {
+        Long tennisCourtId = bookingFixtures.addTennisCourt("Withdrawal Court");
+        Long scheduleId = bookingFixtures.addSchedule(tennisCourtId, LocalDateTime.now().plusDays(3).withNano(0));
+        ReservationDTO held = bookingFixtures.book(bookingFixtures.addGuest("Holder"), scheduleId);
+        WaitlistEntryDTO withdrawn = this.join(bookingFixtures.addGuest("Gave Up"), scheduleId);
+        WaitlistEntryDTO waiting = this.join(bookingFixtures.addGuest("Kept Waiting"), scheduleId);
+
+        Assert.assertEquals(WaitlistStatus.WITHDRAWN.name(), waitlistService.withdrawWaitlistEntry(withdrawn.getId()).getStatus());
+        Assert.assertEquals(1, waitlistService.findWaitlistEntry(waiting.getId()).getPosition());
+        reservationService.cancelReservation(held.getId());
+
+        Assert.assertNull(waitlistService.findWaitlistEntry(withdrawn.getId()).getReservationId());
+        Assert.assertEquals(WaitlistStatus.PROMOTED.name(), waitlistService.findWaitlistEntry(waiting.getId()).getStatus());
+    }
+
+    @Test
+    public void onlyBookedSlotsCanBeWaitedForOnceByAGuest() {
+        Long tennisCourtId = bookingFixtures.addTennisCourt("Free Court");
+        Long scheduleId = bookingFixtures.addSchedule(tennisCourtId, LocalDateTime.now().plusDays(3).withNano(0));
+        Long guestId = bookingFixtures.addGuest("Impatient");
+
+        try {
+            this.join(guestId, scheduleId);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // free slots are booked directly
+        }
+
+        bookingFixtures.book(bookingFixtures.addGuest("Holder"), scheduleId);
+        this.join(guestId, scheduleId);
+        try {
+            this.join(guestId, scheduleId);
+            Assert.fail();
+        } catch (AlreadyExistsEntityException e) {
+            // one place in line per guest
+        }
+    }
+
+    private WaitlistEntryDTO join(Long guestId, Long scheduleId) {
+        return waitlistService.joinWaitlist(CreateWaitlistEntryRequestDTO.builder().guestId(guestId).scheduleId(scheduleId).build());
+    }
+}